@@ -0,0 +1,67 @@
+package tech.ydb.jmeter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.core.UnexpectedResultException;
+
+/**
+ * Per-sample bookkeeping: storing the output variables, and formatting the failure message.
+ *
+ * @author zinal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YdbMiscBenchmark {
+
+    private YdbSampler sampler;
+    private YdbQueryResult result;
+    private Throwable failure;
+
+    @Setup
+    public void setup() {
+        // Benchmark methods run in the same thread as the setup
+        JMeterContextService.getContext().setVariables(new JMeterVariables());
+        sampler = new YdbSampler();
+        final Map<String, String> vars = new HashMap<>();
+        for (int i = 0; i < 5; ++i) {
+            vars.put("var" + i, "value of the output variable " + i);
+        }
+        result = new YdbQueryResult(new byte[0], 0, vars);
+        failure = new CompletionException(new UnexpectedResultException("Query failed",
+                Status.of(StatusCode.OVERLOADED)));
+    }
+
+    @Benchmark
+    public YdbQueryResult storeVariables() {
+        sampler.storeVariables(result);
+        return result;
+    }
+
+    @Benchmark
+    public String fullMessage() {
+        return YdbUtils.fullMessage(failure);
+    }
+
+}
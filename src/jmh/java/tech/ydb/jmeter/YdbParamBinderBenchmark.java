@@ -0,0 +1,73 @@
+package tech.ydb.jmeter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.ydb.table.query.Params;
+import tech.ydb.table.values.StructValue;
+
+/**
+ * Building the query parameters from the argument text, as done by each sample.
+ * The constant arguments hit the binder cache, the changing ones are split and converted,
+ * and the generators produce the values on every call.
+ *
+ * @author zinal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YdbParamBinderBenchmark {
+
+    private static final String TYPES = "Int64,Text,Double,Timestamp,Int32?";
+    private static final String GENERATORS = "@zipfianScrambled(1e9),@randomBytes(20),@uniform(1,100),"
+            + "2024-05-01T10:15:30Z,@sequential(1)";
+
+    private YdbParamBinder binder;
+    private String[] arguments;
+    private int position;
+
+    @Setup
+    public void setup() {
+        binder = YdbParamBinder.compile(TYPES);
+        arguments = new String[1024];
+        for (int i = 0; i < arguments.length; ++i) {
+            arguments[i] = (1000000L + i) + ",\"name " + i + "\"," + (i * 0.5) + ",2024-05-01T10:15:30Z," + i;
+        }
+    }
+
+    @Benchmark
+    public Params bindConstant() {
+        return binder.bind(arguments[0]);
+    }
+
+    @Benchmark
+    public Params bindChanging() {
+        position = (position + 1) & (arguments.length - 1);
+        return binder.bind(arguments[position]);
+    }
+
+    @Benchmark
+    public Params bindGenerators() {
+        return binder.bind(GENERATORS);
+    }
+
+    @Benchmark
+    public StructValue bindStruct() {
+        position = (position + 1) & (arguments.length - 1);
+        return binder.bindStruct(arguments[position]);
+    }
+
+}
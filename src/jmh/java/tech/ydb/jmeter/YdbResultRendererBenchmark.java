@@ -0,0 +1,109 @@
+package tech.ydb.jmeter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.result.impl.ProtoValueReaders;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.Type;
+import tech.ydb.table.values.Value;
+
+/**
+ * Formatting of the result sets as text, over the synthetic result sets of the varying width.
+ * The columns cycle through Int64, Text, Double, Bool and Optional Int32 types.
+ *
+ * @author zinal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YdbResultRendererBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int columns;
+
+    @Param({"100"})
+    public int rows;
+
+    private ResultSetReader reader;
+
+    @Setup
+    public void setup() {
+        final ValueProtos.ResultSet.Builder rs = ValueProtos.ResultSet.newBuilder();
+        final Type[] types = new Type[columns];
+        for (int c = 0; c < columns; ++c) {
+            switch (c % 5) {
+                case 0:
+                    types[c] = PrimitiveType.Int64;
+                    break;
+                case 1:
+                    types[c] = PrimitiveType.Text;
+                    break;
+                case 2:
+                    types[c] = PrimitiveType.Double;
+                    break;
+                case 3:
+                    types[c] = PrimitiveType.Bool;
+                    break;
+                default:
+                    types[c] = PrimitiveType.Int32.makeOptional();
+            }
+            rs.addColumns(ValueProtos.Column.newBuilder().setName("c" + c).setType(types[c].toPb()));
+        }
+        for (int r = 0; r < rows; ++r) {
+            final ValueProtos.Value.Builder row = ValueProtos.Value.newBuilder();
+            for (int c = 0; c < columns; ++c) {
+                row.addItems(makeValue(c % 5, r * columns + c).toPb());
+            }
+            rs.addRows(row);
+        }
+        reader = ProtoValueReaders.forResultSet(rs.build());
+    }
+
+    private static Value<?> makeValue(int kind, int n) {
+        switch (kind) {
+            case 0:
+                return PrimitiveValue.newInt64(n * 7919L);
+            case 1:
+                return PrimitiveValue.newText("value number " + n);
+            case 2:
+                return PrimitiveValue.newDouble(n / 3.0);
+            case 3:
+                return PrimitiveValue.newBool((n & 1) == 0);
+            default:
+                return ((n % 3) == 0) ? PrimitiveType.Int32.makeOptional().emptyValue()
+                        : PrimitiveValue.newInt32(n).makeOptional();
+        }
+    }
+
+    @Benchmark
+    public int appendRows() {
+        reader.setRowIndex(0);
+        final YdbResultRenderer r = YdbResultRenderer.acquire(Integer.MAX_VALUE / 2);
+        try {
+            r.appendColumns(reader);
+            r.appendRows(reader, 0L, -1L);
+            return r.size();
+        } finally {
+            r.release();
+        }
+    }
+
+}
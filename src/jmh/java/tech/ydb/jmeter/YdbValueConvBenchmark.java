@@ -0,0 +1,73 @@
+package tech.ydb.jmeter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.ydb.table.values.Value;
+
+/**
+ * Text-to-value and value-to-text conversions of the query parameters and output variables.
+ *
+ * @author zinal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YdbValueConvBenchmark {
+
+    @Param({"Int64", "Text", "Double", "Timestamp", "Int32?"})
+    public String type;
+
+    private String text;
+    private YdbValueConv.TypedConv conv;
+    private Value<?> value;
+
+    @Setup
+    public void setup() {
+        switch (type) {
+            case "Text":
+                text = "The quick brown fox jumps over the lazy dog";
+                break;
+            case "Double":
+                text = "12345.678";
+                break;
+            case "Timestamp":
+                text = "2024-05-01T10:15:30.123456Z";
+                break;
+            default:
+                text = "1234567";
+        }
+        conv = YdbValueConv.lookup(type);
+        value = conv.convert(text);
+    }
+
+    @Benchmark
+    public Value<?> textToValueLookup() {
+        return YdbValueConv.convert(type, text);
+    }
+
+    @Benchmark
+    public Value<?> textToValueCompiled() {
+        return conv.convert(text);
+    }
+
+    @Benchmark
+    public String valueToText() {
+        return YdbValueConv.convert(value);
+    }
+
+}
@@ -26,7 +26,15 @@ public abstract class AbstractYdbBeanInfoSupport extends BeanInfoSupport {
                 "variableNames",
                 "queryTimeout",
                 "resultSetMaxRows",
-                "resultSetHandler"
+                "resultSetHandler",
+                "queryCacheMode",
+                "statsMode"
+                });
+
+        createPropertyGroup("latency",
+                new String[] {
+                "histogramFile",
+                "expectedInterval"
                 });
 
         PropertyDescriptor p = property("dataSource");
@@ -52,6 +60,7 @@ public abstract class AbstractYdbBeanInfoSupport extends BeanInfoSupport {
                 AbstractYdbTestElement.DATAQUERY,
                 AbstractYdbTestElement.SCANQUERY,
                 AbstractYdbTestElement.SCHEMEQUERY,
+                AbstractYdbTestElement.QUERYSERVICE,
                 });
 
         p = property("query", TypeEditor.TextAreaEditor);
@@ -85,7 +94,37 @@ public abstract class AbstractYdbBeanInfoSupport extends BeanInfoSupport {
         p.setValue(NOT_OTHER, Boolean.TRUE);
         p.setValue(TAGS,new String[]{
                 AbstractYdbTestElement.RS_STORE_AS_STRING,
-                AbstractYdbTestElement.RS_COUNT_RECORDS
+                AbstractYdbTestElement.RS_COUNT_RECORDS,
+                AbstractYdbTestElement.RS_CHECKSUM
+                });
+
+        p = property("statsMode");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, AbstractYdbTestElement.STATS_NONE);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(TAGS,new String[]{
+                AbstractYdbTestElement.STATS_NONE,
+                AbstractYdbTestElement.STATS_BASIC,
+                AbstractYdbTestElement.STATS_FULL,
+                AbstractYdbTestElement.STATS_PROFILE
+                });
+
+        p = property("histogramFile");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("expectedInterval");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("queryCacheMode");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, AbstractYdbTestElement.QC_NONE);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(TAGS,new String[]{
+                AbstractYdbTestElement.QC_NONE,
+                AbstractYdbTestElement.QC_KEEP,
+                AbstractYdbTestElement.QC_PREPARE
                 });
     }
 }
@@ -3,6 +3,14 @@ package tech.ydb.jmeter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,21 +20,27 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.testelement.AbstractTestElement;
 import org.apache.jmeter.testelement.TestStateListener;
 import org.apache.jmeter.samplers.SampleResult;
-import org.apache.jmeter.save.CSVSaveService;
 import org.apache.jmeter.threads.JMeterVariables;
 
+import tech.ydb.common.transaction.TxMode;
+import tech.ydb.core.Result;
 import tech.ydb.core.grpc.GrpcReadStream;
+import tech.ydb.query.QueryStream;
+import tech.ydb.query.result.QueryInfo;
+import tech.ydb.query.settings.ExecuteQuerySettings;
+import tech.ydb.query.settings.QueryStatsMode;
+import tech.ydb.table.Session;
 import tech.ydb.table.SessionRetryContext;
 import tech.ydb.table.query.DataQueryResult;
 import tech.ydb.table.query.Params;
+import tech.ydb.table.query.stats.QueryStatsCollectionMode;
 import tech.ydb.table.result.ResultSetReader;
-import tech.ydb.table.result.ValueReader;
 import tech.ydb.table.settings.ExecuteDataQuerySettings;
 import tech.ydb.table.settings.ExecuteScanQuerySettings;
+import tech.ydb.table.settings.PrepareDataQuerySettings;
 import tech.ydb.table.settings.ExecuteSchemeQuerySettings;
 import tech.ydb.table.transaction.TxControl;
-import tech.ydb.table.values.Type;
-import tech.ydb.table.values.Value;
+import tech.ydb.table.values.StructValue;
 
 /**
  * A base class for all YDB test elements handling the basics of an SQL request.
@@ -42,7 +56,6 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
     protected static final java.nio.charset.Charset CHARSET = StandardCharsets.UTF_8;
 
     private static final String COMMA = ",";
-    private static final char COMMA_CHAR = ',';
 
     // Maximum allowed capacity to store query results.
     public static final int MAX_STORE_CHARS = 65536;
@@ -52,6 +65,7 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
     public static final String DATAQUERY   = "Data Query";
     public static final String SCANQUERY   = "Scan Query";
     public static final String SCHEMEQUERY   = "Scheme Query";
+    public static final String QUERYSERVICE   = "Query Service";
     // Transaction modes
     public static final String SERIALIZABLERW = "Serializable Read/Write";
     public static final String ONLINERO = "Online Read Only";
@@ -60,6 +74,16 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
     // ResultSet store modes
     public static final String RS_STORE_AS_STRING = "Store as String";
     public static final String RS_COUNT_RECORDS = "Count Records";
+    public static final String RS_CHECKSUM = "Checksum Rows";
+    // Query cache modes for data queries
+    public static final String QC_NONE = "No Caching";
+    public static final String QC_KEEP = "Keep in Query Cache";
+    public static final String QC_PREPARE = "Prepare Explicitly";
+    // Server-side statistics collection modes for data queries
+    public static final String STATS_NONE = "None";
+    public static final String STATS_BASIC = "Basic";
+    public static final String STATS_FULL = "Full";
+    public static final String STATS_PROFILE = "Profile";
 
     private String queryType = DATAQUERY;
     private String txType = SERIALIZABLERW;
@@ -71,6 +95,16 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
     private String resultSetHandler = RS_STORE_AS_STRING;
     private String queryTimeout = "";
     private String resultSetMaxRows = "";
+    private String queryCacheMode = QC_NONE;
+    private String statsMode = STATS_NONE;
+    private String histogramFile = "";
+    private String expectedInterval = "";
+
+    // Compiled parameter binder, per test element clone
+    private transient YdbParamBinder binder;
+
+    // Identity of the test element, set at the test start and copied to the thread clones
+    private static final String ELEMENT_ID = "AbstractYdbTestElement.elementId";
 
     protected AbstractYdbTestElement() {
     }
@@ -78,70 +112,271 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
     /**
      * Execute the test element.
      *
-     * @param src a {@link SessionRetryContext}
+     * @param conn a {@link YdbConnection}
      * @return the result of the execute command
      */
-    protected YdbQueryResult execute(SessionRetryContext src) {
-        return execute(src, new SampleResult());
+    protected YdbQueryResult execute(YdbConnection conn) {
+        return execute(conn, new SampleResult());
     }
 
     /**
      * Execute the test element.
      * Use the sample given as argument to set time to first byte in the "latency" field of the SampleResult.
+     * The output variables are stored in the calling thread's context.
      *
-     * @param src a {@link SessionRetryContext}
+     * @param conn a {@link YdbConnection}
      * @param sample a {@link SampleResult} to save the latency
      * @return the result of the execute command
      */
-    protected YdbQueryResult execute(SessionRetryContext src, SampleResult sample) {
+    protected YdbQueryResult execute(YdbConnection conn, SampleResult sample) {
+        final YdbQueryResult result;
+        try {
+            result = executeAsync(conn, sample).join();
+        } catch(CompletionException ce) {
+            if (ce.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ce.getCause();
+            }
+            throw ce;
+        }
+        storeVariables(result);
+        return result;
+    }
+
+    /**
+     * Start the execution of the test element without waiting for its completion.
+     * The query text and parameters are bound before the method returns,
+     * while the results are processed in the callbacks on the SDK threads.
+     * The output variables are not stored, see {@link #storeVariables(YdbQueryResult)}.
+     *
+     * @param conn a {@link YdbConnection}
+     * @param sample a {@link SampleResult} to save the latency
+     * @return the future result of the execute command
+     */
+    protected CompletableFuture<YdbQueryResult> executeAsync(YdbConnection conn, SampleResult sample) {
+        return executeAsync(conn, sample, System.nanoTime());
+    }
+
+    /**
+     * Start the execution of the test element without waiting for its completion,
+     * see {@link #executeAsync(YdbConnection, SampleResult)}.
+     *
+     * @param conn a {@link YdbConnection}
+     * @param sample a {@link SampleResult} to save the latency
+     * @param intendedNanos intended start of the request, as returned by {@link System#nanoTime()},
+     *   from which the latency histogram is recorded
+     * @return the future result of the execute command
+     */
+    protected CompletableFuture<YdbQueryResult> executeAsync(YdbConnection conn, SampleResult sample,
+            long intendedNanos) {
         LOG.debug("executing ydb: {}", getQuery());
+        if (StringUtils.isBlank(getHistogramFile())) {
+            return conn.track(() -> executeDispatch(conn, sample));
+        }
+        final YdbLatencyRecorder recorder = YdbLatencyRecorder.forName(getElementId(), getName(),
+                YdbUtils.parseLong(getExpectedInterval(), 0L) * 1000L);
+        return conn.track(() -> executeDispatch(conn, sample))
+                .whenComplete((res, ex) -> recorder.record(intendedNanos));
+    }
+
+    private CompletableFuture<YdbQueryResult> executeDispatch(YdbConnection conn, SampleResult sample) {
         // Based on query return value, get results
         final String qt = getQueryType();
         if (DATAQUERY.equals(qt)) {
-            return executeDataQuery(src, sample);
+            final YdbTransactionState tx = YdbTransactionState.current(StringUtils.trim(getDataSource()));
+            if (tx == null && getIntegerBatchSize() > 1) {
+                return executeBatched(sample, prepareDataQuery(conn, new SampleResult(), null));
+            }
+            return prepareDataQuery(conn, sample, tx).apply(makeParams());
         }
         if (SCANQUERY.equals(qt)) {
-            return executeScanQuery(src, sample);
+            if (getIntegerScanParallelism() > 1 && StringUtils.isNotBlank(getScanTable())) {
+                return executeParallelScan(conn, sample);
+            }
+            return executeScanQuery(conn.getTableCtx(), sample);
         }
         if (SCHEMEQUERY.equals(qt)) {
-            return executeSchemeQuery(src, sample);
+            return executeSchemeQuery(conn.getTableCtx(), sample);
+        }
+        if (QUERYSERVICE.equals(qt)) {
+            if (getIntegerBatchSize() > 1) {
+                return executeBatched(sample, prepareQueryService(conn.getQueryCtx(), new SampleResult()));
+            }
+            return prepareQueryService(conn.getQueryCtx(), sample).apply(makeParams());
         }
         // User provided incorrect query type
         throw new UnsupportedOperationException("Unexpected YDB query type: " + qt);
     }
 
-    private YdbQueryResult executeDataQuery(SessionRetryContext src, SampleResult sample) {
-        final YdbRetryHandler handler = new YdbRetryHandler(getName());
-        DataQueryResult dqr = src.supplyResult(handler,
-                session -> session.executeDataQuery(getQuery(),
-                        makeTxControl(), makeParams(), makeDataQuerySettings()))
-                .join().getValue();
-        sample.latencyEnd();
-        final StringBuilder sb = new StringBuilder();
-        final int nrs = dqr.getResultSetCount();
-        int varPos = 0;
-        for (int irs = 0; irs < nrs; irs++) {
-            ResultSetReader rsr = dqr.getResultSet(irs);
-            sb.append("** Result set #").append(irs+1)
-                    .append(", ").append(rsr.getRowCount()).append(" row(s)");
-            if (rsr.isTruncated()) {
-                sb.append(" (TRUNCATED)");
-            }
-            sb.append("\n");
-            if (RS_STORE_AS_STRING.equalsIgnoreCase(getResultSetHandler())) {
-                appendColumns(sb, rsr);
-                appendRows(sb, rsr, 0);
+    /**
+     * Store the output variables grabbed by the query into the current thread's context.
+     *
+     * @param result the result of the execute command
+     */
+    protected void storeVariables(YdbQueryResult result) {
+        if (result.getVariables().isEmpty()) {
+            return;
+        }
+        JMeterVariables jmvars = getThreadContext().getVariables();
+        for (Map.Entry<String, String> me : result.getVariables().entrySet()) {
+            jmvars.putObject(me.getKey(), me.getValue());
+        }
+    }
+
+    /**
+     * Add the current parameter values as a row to the shared batch.
+     * The batch is executed as a single query, with rows passed as the List of Structs
+     * in the $batch parameter, having the members p1, p2, etc.
+     * The future completes when the whole batch is executed.
+     */
+    private CompletableFuture<YdbQueryResult> executeBatched(SampleResult sample,
+            Function<Params, CompletableFuture<YdbQueryResult>> executor) {
+        final YdbParamBinder b = getBinder();
+        if (b.getCount() == 0) {
+            throw new IllegalArgumentException("Batching requires query parameters in " + getName());
+        }
+        final StructValue row = b.bindStruct(getQueryArguments());
+        final YdbBatcher batcher = YdbBatcher.forName(getElementId(), getName(),
+                getIntegerBatchSize(), getLongBatchLinger());
+        return batcher.submit(row, executor).thenApply(res -> {
+            sample.latencyEnd();
+            // Output variables are not grabbed from the shared results
+            return new YdbQueryResult(res.getData(), res.getRetryCount());
+        });
+    }
+
+    /**
+     * Capture the DataQuery settings of the test element in the calling thread.
+     * The returned function does not access the test element, so it can be executed
+     * from any thread, e.g. for the batch shared by several threads.
+     */
+    private Function<Params, CompletableFuture<YdbQueryResult>> prepareDataQuery(YdbConnection conn,
+            SampleResult sample, YdbTransactionState tx) {
+        final String name = getName();
+        final String query = getQuery();
+        final ExecuteDataQuerySettings settings = makeDataQuerySettings();
+        final boolean storeAsString = RS_STORE_AS_STRING.equalsIgnoreCase(getResultSetHandler());
+        final boolean checksum = RS_CHECKSUM.equalsIgnoreCase(getResultSetHandler());
+        final long maxRows = getIntegerResultSetMaxRows();
+        final String[] varnames = getVariableNames().split(COMMA);
+        final String phaseName = isPhaseSubResults() ? name : null;
+        final String cacheMode = getQueryCacheMode();
+        final YdbQueryCacheStats cacheStats;
+        final PrepareDataQuerySettings prepareSettings;
+        if (QC_PREPARE.equalsIgnoreCase(cacheMode)) {
+            // The settings keep the query in the server cache by default
+            cacheStats = YdbQueryCacheStats.forName(name);
+            settings.setCollectStats(QueryStatsCollectionMode.BASIC);
+            prepareSettings = makePrepareDataQuerySettings();
+        } else {
+            if (QC_KEEP.equalsIgnoreCase(cacheMode)) {
+                cacheStats = YdbQueryCacheStats.forName(name);
+                settings.setCollectStats(QueryStatsCollectionMode.BASIC);
+            } else {
+                cacheStats = null;
+                settings.disableQueryCache();
             }
-            varPos = storeVariables(rsr, varPos);
+            prepareSettings = null;
         }
-        return new YdbQueryResult(sb.toString().getBytes(CHARSET), handler.getRetryCount());
+        final QueryStatsCollectionMode statsCollection = makeStatsCollectionMode();
+        if (statsCollection != null) {
+            settings.setCollectStats(statsCollection);
+        }
+        final YdbQueryStatsTotals statsTotals = (statsCollection != null)
+                ? YdbQueryStatsTotals.forName(name) : null;
+        final boolean commitTx = isCommitTx();
+        final TxControl<?> txControl = (tx == null) ? makeTxControl() : null;
+        return params -> {
+            final YdbRetryHandler handler = new YdbRetryHandler(name);
+            final BiFunction<Session, TxControl<?>, CompletableFuture<Result<DataQueryResult>>> fn;
+            if (prepareSettings != null) {
+                fn = (session, txc) -> conn.prepareDataQuery(session, query, prepareSettings, cacheStats)
+                        .thenCompose(prepared -> {
+                    if (! prepared.isSuccess()) {
+                        return CompletableFuture.completedFuture(
+                                Result.<DataQueryResult>fail(prepared.getStatus()));
+                    }
+                    return prepared.getValue().execute(txc, params, settings).thenApply(res -> {
+                        if (! res.isSuccess()) {
+                            // The prepared query may have been evicted from the server cache
+                            conn.forgetDataQuery(session, query);
+                        }
+                        return res;
+                    });
+                });
+            } else {
+                fn = (session, txc) -> session.executeDataQuery(query, txc, params, settings);
+            }
+            final YdbPhaseTimer timer = new YdbPhaseTimer();
+            final BiFunction<Session, TxControl<?>, CompletableFuture<Result<DataQueryResult>>> timed =
+                    (session, txc) -> {
+                timer.onAttempt(sample);
+                return fn.apply(session, txc);
+            };
+            final CompletableFuture<Result<DataQueryResult>> future;
+            if (tx != null) {
+                // Interactive transaction, no retries of the single statement
+                future = tx.execute(conn, commitTx, timed);
+            } else {
+                future = conn.getTableCtx().supplyResult(handler, session -> timed.apply(session, txControl));
+            }
+            return future.thenApply(res -> {
+                timer.onResult();
+                DataQueryResult dqr = res.getValue();
+                sample.latencyEnd();
+                if (cacheStats != null) {
+                    cacheStats.onQueryStats(dqr.getQueryStats());
+                }
+                final YdbResultRenderer out = YdbResultRenderer.acquire(MAX_STORE_CHARS);
+                try {
+                    final Map<String, String> vars = new HashMap<>();
+                    final YdbResultChecksum cs = checksum ? new YdbResultChecksum() : null;
+                    final int nrs = dqr.getResultSetCount();
+                    int varPos = 0;
+                    for (int irs = 0; irs < nrs; irs++) {
+                        ResultSetReader rsr = dqr.getResultSet(irs);
+                        out.append("** Result set #").append(irs+1)
+                                .append(", ").append(rsr.getRowCount()).append(" row(s)");
+                        if (rsr.isTruncated()) {
+                            out.append(" (TRUNCATED)");
+                        }
+                        out.append('\n');
+                        if (storeAsString) {
+                            out.appendColumns(rsr);
+                            out.appendRows(rsr, 0, maxRows);
+                        }
+                        if (cs != null) {
+                            cs.addRows(rsr, irs);
+                        } else {
+                            varPos = grabVariables(varnames, vars, rsr, varPos);
+                        }
+                    }
+                    if (cs != null) {
+                        appendChecksum(out, cs);
+                        grabChecksum(varnames, vars, cs);
+                    }
+                    String statsHeaders = "";
+                    if (statsTotals != null && dqr.getQueryStats() != null) {
+                        YdbQueryStats qs = YdbQueryStats.of(dqr.getQueryStats());
+                        statsTotals.add(qs);
+                        qs.putVariables(vars);
+                        statsHeaders = qs.formatHeaders();
+                    }
+                    final byte[] data = out.toByteArray();
+                    finishTiming(timer, sample, phaseName);
+                    return new YdbQueryResult(data, handler, vars, statsHeaders + timer.formatHeaders());
+                } finally {
+                    out.release();
+                }
+            });
+        };
     }
 
-    private YdbQueryResult executeScanQuery(SessionRetryContext src, SampleResult sample) {
+    private CompletableFuture<YdbQueryResult> executeScanQuery(SessionRetryContext src, SampleResult sample) {
         // Input-output data for async operations
         class ScanQueryContext {
             boolean latencyEnd;
-            StringBuilder data;
+            YdbResultRenderer data;
+            YdbResultChecksum checksum;
             boolean needHeader;
             boolean storeVariables;
             long totalRows;
@@ -149,54 +384,315 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
         final ScanQueryContext sqc = new ScanQueryContext();
         sqc.latencyEnd = true;
         if ( RS_STORE_AS_STRING.equalsIgnoreCase(getResultSetHandler()) ) {
-            sqc.data = new StringBuilder();
-            sqc.needHeader = true;
+            sqc.data = YdbResultRenderer.acquire(MAX_STORE_CHARS);
+        } else if ( RS_CHECKSUM.equalsIgnoreCase(getResultSetHandler()) ) {
+            sqc.checksum = new YdbResultChecksum();
         }
-        sqc.storeVariables = true;
-        sqc.totalRows = 0;
+        final long maxRows = getIntegerResultSetMaxRows();
+        final String query = getQuery();
+        final Params params = makeParams();
+        final ExecuteScanQuerySettings settings = makeScanQuerySettings();
+        final Map<String, String> vars = new HashMap<>();
+        final String[] varnames = getVariableNames().split(COMMA);
+        final String phaseName = isPhaseSubResults() ? getName() : null;
         final YdbRetryHandler handler = new YdbRetryHandler(getName());
-        src.supplyStatus(handler, session -> {
-            GrpcReadStream<ResultSetReader> scan = session.executeScanQuery(getQuery(),
-                    makeParams(), makeScanQuerySettings());
+        final YdbPhaseTimer timer = new YdbPhaseTimer();
+        return src.supplyStatus(handler, session -> {
+            timer.onAttempt(sample);
+            // Restart the output on each retry attempt
+            if (sqc.data != null) {
+                sqc.data.reset();
+            }
+            if (sqc.checksum != null) {
+                sqc.checksum.reset();
+            }
+            sqc.needHeader = true;
+            sqc.storeVariables = (sqc.checksum == null);
+            sqc.totalRows = 0;
+            vars.clear();
+            GrpcReadStream<ResultSetReader> scan = session.executeScanQuery(query,
+                    params, settings);
             return scan.start(rsr -> {
                 if (sqc.latencyEnd) {
                     sample.latencyEnd();
                     sqc.latencyEnd = false;
                 }
+                final long startNanos = System.nanoTime();
                 if (sqc.data != null) {
                     // Format and store the data rows
                     if (sqc.needHeader) {
                         sqc.needHeader = false;
-                        appendColumns(sqc.data, rsr);
+                        sqc.data.appendColumns(rsr);
                     }
-                    appendRows(sqc.data, rsr, sqc.totalRows);
+                    sqc.data.appendRows(rsr, sqc.totalRows, maxRows);
+                }
+                if (sqc.checksum != null) {
+                    sqc.checksum.addRows(rsr, 0L);
                 }
                 if (sqc.storeVariables) {
                     sqc.storeVariables = false;
-                    storeVariables(rsr, 0);
+                    grabVariables(varnames, vars, rsr, 0);
                 }
                 sqc.totalRows += rsr.getRowCount();
+                timer.addProcessing(System.nanoTime() - startNanos);
             });
-        }).join().expectSuccess();
-        if (sqc.latencyEnd) {
-            // Empty result set, need to report latency
+        }).thenApply(status -> {
+            timer.onResult();
+            status.expectSuccess();
+            if (sqc.latencyEnd) {
+                // Empty result set, need to report latency
+                sample.latencyEnd();
+            }
+            final byte[] data;
+            if (sqc.data!=null) {
+                sqc.data.append("** Total rows: ").append(sqc.totalRows);
+                data = sqc.data.toByteArray();
+            } else if (sqc.checksum!=null) {
+                grabChecksum(varnames, vars, sqc.checksum);
+                data = ("** Total rows: " + Long.toString(sqc.totalRows)
+                        + "\n** Checksum: " + sqc.checksum.getDigestHex()).getBytes(CHARSET);
+            } else {
+                data = ("** Total rows: " + Long.toString(sqc.totalRows)).getBytes(CHARSET);
+            }
+            finishTiming(timer, sample, phaseName);
+            return new YdbQueryResult(data, handler, vars, timer.formatHeaders());
+        }).whenComplete((res, ex) -> {
+            if (sqc.data != null) {
+                sqc.data.release();
+            }
+        });
+    }
+
+    private CompletableFuture<YdbQueryResult> executeParallelScan(YdbConnection conn, SampleResult sample) {
+        final boolean checksum = RS_CHECKSUM.equalsIgnoreCase(getResultSetHandler());
+        String path = getScanTable().trim();
+        if (! path.startsWith("/")) {
+            path = conn.getDatabase() + "/" + path;
+        }
+        final YdbParallelScan scan = new YdbParallelScan(getName(), conn, path, getIntegerScanParallelism());
+        final String[] varnames = getVariableNames().split(COMMA);
+        final Map<String, String> vars = new HashMap<>();
+        final long maxRows = getIntegerResultSetMaxRows();
+        // The rows and the variables come from the first stream, as with the single stream
+        // they would come from the beginning of the key range
+        final YdbResultRenderer data = RS_STORE_AS_STRING.equalsIgnoreCase(getResultSetHandler())
+                ? YdbResultRenderer.acquire(MAX_STORE_CHARS) : null;
+        final YdbParallelScan.RowListener listener = checksum ? null : new YdbParallelScan.RowListener() {
+            boolean needHeader;
+            boolean storeVariables;
+            long totalRows;
+            @Override
+            public void onAttempt() {
+                if (data != null) {
+                    data.reset();
+                }
+                needHeader = true;
+                storeVariables = true;
+                totalRows = 0L;
+                vars.clear();
+            }
+            @Override
+            public void onRows(ResultSetReader rsr) {
+                if (data != null) {
+                    if (needHeader) {
+                        needHeader = false;
+                        data.appendColumns(rsr);
+                    }
+                    data.appendRows(rsr, totalRows, maxRows);
+                }
+                if (storeVariables) {
+                    storeVariables = false;
+                    grabVariables(varnames, vars, rsr, 0);
+                }
+                totalRows += rsr.getRowCount();
+            }
+        };
+        return scan.execute(getQuery(), makeParams(), makeScanQuerySettings(), checksum, listener, sample)
+                .thenApply(ps -> {
+            String report = ps.makeReport();
+            final YdbResultChecksum cs = ps.getChecksum();
+            if (cs != null) {
+                grabChecksum(varnames, vars, cs);
+                report = report + "\n** Checksum: " + cs.getDigestHex();
+            }
+            final byte[] bytes;
+            if (data != null) {
+                data.append(report);
+                bytes = data.toByteArray();
+            } else {
+                bytes = report.getBytes(CHARSET);
+            }
+            return new YdbQueryResult(bytes, ps.getRetryCount(), vars);
+        }).whenComplete((res, ex) -> {
+            if (data != null) {
+                data.release();
+            }
+        });
+    }
+
+    private CompletableFuture<YdbQueryResult> executeSchemeQuery(SessionRetryContext src, SampleResult sample) {
+        final String query = getQuery();
+        final ExecuteSchemeQuerySettings settings = makeSchemeQuerySettings();
+        final YdbRetryHandler handler = new YdbRetryHandler(getName());
+        return src.supplyStatus(handler, session -> session.executeSchemeQuery(query, settings))
+                .thenApply(status -> {
+            status.expectSuccess();
             sample.latencyEnd();
+            return new YdbQueryResult(new byte[0], handler, new HashMap<>());
+        });
+    }
+
+    /**
+     * Capture the Query Service settings of the test element in the calling thread,
+     * see {@link #prepareDataQuery(YdbConnection, SampleResult, YdbTransactionState)}.
+     */
+    private Function<Params, CompletableFuture<YdbQueryResult>> prepareQueryService(
+            tech.ydb.query.tools.SessionRetryContext src, SampleResult sample) {
+        // Input-output data for async operations, re-created on each retry attempt
+        class QueryContext {
+            final Map<String, String> vars = new HashMap<>();
+            final YdbResultChecksum checksum;
+            long resultSetIndex = -1L;
+            long resultSetRows;
+            int varPos;
+            long totalRows;
+            QueryContext(boolean withChecksum) {
+                checksum = withChecksum ? new YdbResultChecksum() : null;
+            }
         }
-        final byte[] data;
-        if (sqc.data!=null) {
-            sqc.data.append("** Total rows: ").append(sqc.totalRows);
-            data = sqc.data.toString().getBytes(CHARSET);
-        } else {
-            data = ("** Total rows: " + Long.toString(sqc.totalRows)).getBytes(CHARSET);
+        final String name = getName();
+        final String query = getQuery();
+        final TxMode txMode = makeTxMode();
+        final ExecuteQuerySettings settings = makeQuerySettings();
+        final boolean storeAsString = RS_STORE_AS_STRING.equalsIgnoreCase(getResultSetHandler());
+        final boolean checksum = RS_CHECKSUM.equalsIgnoreCase(getResultSetHandler());
+        final long maxRows = getIntegerResultSetMaxRows();
+        final String[] varnames = getVariableNames().split(COMMA);
+        final String phaseName = isPhaseSubResults() ? name : null;
+        final YdbQueryStatsTotals statsTotals = (makeQueryStatsMode() != null)
+                ? YdbQueryStatsTotals.forName(name) : null;
+        return params -> {
+            final YdbResultRenderer out = storeAsString ? YdbResultRenderer.acquire(MAX_STORE_CHARS) : null;
+            final boolean[] latencyEnd = new boolean[] { true };
+            final AtomicReference<QueryContext> current = new AtomicReference<>();
+            final YdbRetryHandler handler = new YdbRetryHandler(name);
+            final YdbPhaseTimer timer = new YdbPhaseTimer();
+            // The Query Service retry context does not accept the handler, so the attempts are wrapped
+            return src.supplyResult(handler.wrap(session -> {
+                timer.onAttempt(sample);
+                final QueryContext qc = new QueryContext(checksum);
+                if (out != null) {
+                    out.reset();
+                }
+                current.set(qc);
+                QueryStream stream = session.createQuery(query, txMode, params, settings);
+                return stream.execute(part -> {
+                    if (latencyEnd[0]) {
+                        sample.latencyEnd();
+                        latencyEnd[0] = false;
+                    }
+                    final long startNanos = System.nanoTime();
+                    ResultSetReader rsr = part.getResultSetReader();
+                    boolean firstPart = false;
+                    if (qc.resultSetIndex != part.getResultSetIndex()) {
+                        // First part of the next result set
+                        qc.resultSetIndex = part.getResultSetIndex();
+                        qc.resultSetRows = 0;
+                        firstPart = true;
+                        if (out != null) {
+                            out.append("** Result set #").append(qc.resultSetIndex + 1).append('\n');
+                            out.appendColumns(rsr);
+                        }
+                    }
+                    if (out != null) {
+                        out.appendRows(rsr, qc.resultSetRows, maxRows);
+                    }
+                    if (qc.checksum != null) {
+                        qc.checksum.addRows(rsr, qc.resultSetIndex);
+                    } else if (firstPart) {
+                        qc.varPos = grabVariables(varnames, qc.vars, rsr, qc.varPos);
+                    }
+                    qc.resultSetRows += rsr.getRowCount();
+                    qc.totalRows += rsr.getRowCount();
+                    timer.addProcessing(System.nanoTime() - startNanos);
+                });
+            })).thenApply(res -> {
+                timer.onResult();
+                handler.onFinish(res.getStatus());
+                final QueryInfo info = res.getValue();
+                if (latencyEnd[0]) {
+                    // No result sets, need to report latency
+                    sample.latencyEnd();
+                }
+                final QueryContext qc = current.get();
+                final byte[] data;
+                if (out!=null) {
+                    out.append("** Total rows: ").append(qc.totalRows);
+                    data = out.toByteArray();
+                } else if (qc.checksum!=null) {
+                    grabChecksum(varnames, qc.vars, qc.checksum);
+                    data = ("** Total rows: " + Long.toString(qc.totalRows)
+                            + "\n** Checksum: " + qc.checksum.getDigestHex()).getBytes(CHARSET);
+                } else {
+                    data = ("** Total rows: " + Long.toString(qc.totalRows)).getBytes(CHARSET);
+                }
+                String statsHeaders = "";
+                if (statsTotals != null && info.hasStats()) {
+                    YdbQueryStats qs = YdbQueryStats.of(info.getStats());
+                    statsTotals.add(qs);
+                    qs.putVariables(qc.vars);
+                    statsHeaders = qs.formatHeaders();
+                }
+                finishTiming(timer, sample, phaseName);
+                return new YdbQueryResult(data, handler, qc.vars, statsHeaders + timer.formatHeaders());
+            }).whenComplete((res, ex) -> {
+                if (out != null) {
+                    out.release();
+                }
+            });
+        };
+    }
+
+    private QueryStatsCollectionMode makeStatsCollectionMode() {
+        if (STATS_BASIC.equalsIgnoreCase(statsMode)) {
+            return QueryStatsCollectionMode.BASIC;
+        }
+        if (STATS_FULL.equalsIgnoreCase(statsMode)) {
+            return QueryStatsCollectionMode.FULL;
+        }
+        if (STATS_PROFILE.equalsIgnoreCase(statsMode)) {
+            return QueryStatsCollectionMode.PROFILE;
         }
-        return new YdbQueryResult(data, handler.getRetryCount());
+        return null;
     }
 
-    private YdbQueryResult executeSchemeQuery(SessionRetryContext src, SampleResult sample) {
-        src.supplyStatus(session -> session.executeSchemeQuery(getQuery(), 
-                makeSchemeQuerySettings())).join().expectSuccess();
-        sample.latencyEnd();
-        return new YdbQueryResult(new byte[0], 0);
+    private QueryStatsMode makeQueryStatsMode() {
+        if (STATS_BASIC.equalsIgnoreCase(statsMode)) {
+            return QueryStatsMode.BASIC;
+        }
+        if (STATS_FULL.equalsIgnoreCase(statsMode)) {
+            return QueryStatsMode.FULL;
+        }
+        if (STATS_PROFILE.equalsIgnoreCase(statsMode)) {
+            return QueryStatsMode.PROFILE;
+        }
+        return null;
+    }
+
+    private TxMode makeTxMode() {
+        if (SERIALIZABLERW.equalsIgnoreCase(txType)) {
+            return TxMode.SERIALIZABLE_RW;
+        }
+        if (STALERO.equalsIgnoreCase(txType)) {
+            return TxMode.STALE_RO;
+        }
+        if (SNAPSHOTRO.equalsIgnoreCase(txType)) {
+            return TxMode.SNAPSHOT_RO;
+        }
+        if (ONLINERO.equalsIgnoreCase(txType)) {
+            return TxMode.ONLINE_RO;
+        }
+        throw new IllegalArgumentException("Illegal value for TX mode: " + txType);
     }
 
     private TxControl<?> makeTxControl() {
@@ -226,6 +722,16 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
         return ret;
     }
 
+    private PrepareDataQuerySettings makePrepareDataQuerySettings() {
+        PrepareDataQuerySettings ret = new PrepareDataQuerySettings();
+        int timeout = getIntegerQueryTimeout();
+        if (timeout > 0) {
+            ret.setCancelAfter(Duration.ofSeconds(timeout));
+            ret.setTimeout(Duration.ofSeconds(timeout+1));
+        }
+        return ret;
+    }
+
     private ExecuteScanQuerySettings makeScanQuerySettings() {
         ExecuteScanQuerySettings.Builder builder = ExecuteScanQuerySettings.newBuilder();
         int timeout = getIntegerQueryTimeout();
@@ -236,6 +742,20 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
         return builder.build();
     }
 
+    private ExecuteQuerySettings makeQuerySettings() {
+        ExecuteQuerySettings.Builder builder = ExecuteQuerySettings.newBuilder();
+        int timeout = getIntegerQueryTimeout();
+        if (timeout <= 0) {
+            timeout = 3600;
+        }
+        builder.withRequestTimeout(Duration.ofSeconds(timeout));
+        final QueryStatsMode statsCollection = makeQueryStatsMode();
+        if (statsCollection != null) {
+            builder.withStatsMode(statsCollection);
+        }
+        return builder.build();
+    }
+
     private ExecuteSchemeQuerySettings makeSchemeQuerySettings() {
         ExecuteSchemeQuerySettings ret = new ExecuteSchemeQuerySettings();
         int timeout = getIntegerQueryTimeout();
@@ -247,96 +767,104 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
     }
 
     private Params makeParams() {
-        if (getQueryArguments().trim().length()==0) {
-            return Params.create();
-        }
-        String[] arguments;
-        try {
-            arguments = CSVSaveService.csvSplitString(getQueryArguments(), COMMA_CHAR);
-        } catch(IOException ix) {
-            throw new RuntimeException("Failed to parse arguments", ix);
-        }
-        String[] argumentsTypes = getQueryArgumentsTypes().split(COMMA);
-        if (arguments.length != argumentsTypes.length) {
-            throw new RuntimeException("number of arguments ("
-                    + arguments.length + ") and number of types ("
-                    + argumentsTypes.length + ") are not equal");
-        }
-        Params params = Params.create(arguments.length);
-        for (int i = 0; i < arguments.length; i++) {
-            String argument = arguments[i];
-            String argumentType = argumentsTypes[i];
-            params.put("$p" + Integer.toString(i+1), YdbValueConv.convert(argumentType, argument));
-        }
-        return params;
+        return getBinder().bind(getQueryArguments());
     }
 
-    private void appendColumns(StringBuilder sb, ResultSetReader rsr) {
-        final int nc = rsr.getColumnCount();
-        for (int ic=0; ic<nc; ic++) {
-            if (ic>0)
-                sb.append("\t");
-            sb.append(rsr.getColumnName(ic));
-        }
-        sb.append("\n");
+    /**
+     * @return Number of concurrent streams of the partitioned scan, values below 2 disable it
+     */
+    protected int getIntegerScanParallelism() {
+        return 0;
     }
 
-    private static void val2buf(ValueReader vr, StringBuilder sb) {
-        Value<?> v = vr.getValue();
-        if (v!=null) {
-            if (Type.Kind.OPTIONAL.equals(v.getType().getKind())) {
-                if (! v.asOptional().isPresent()) {
-                    v = null;
-                } else {
-                    v = v.asOptional().get();
-                }
-            }
+    /**
+     * @return Path to the table which key ranges are used to split the scan
+     */
+    protected String getScanTable() {
+        return "";
+    }
+
+    /**
+     * @return true, if the request phases are reported as the sub-results
+     */
+    protected boolean isPhaseSubResults() {
+        return false;
+    }
+
+    /**
+     * @return true, if the statement commits the interactive transaction it runs in
+     */
+    protected boolean isCommitTx() {
+        return false;
+    }
+
+    /**
+     * @return Number of rows collected into a single batch, values below 2 disable batching
+     */
+    protected int getIntegerBatchSize() {
+        return 0;
+    }
+
+    /**
+     * @return Maximum time in milliseconds the incomplete batch waits for more rows
+     */
+    protected long getLongBatchLinger() {
+        return 0L;
+    }
+
+    /**
+     * @return The parameter binder compiled for the current argument types
+     */
+    protected YdbParamBinder getBinder() {
+        YdbParamBinder b = binder;
+        if (b == null || !b.isCompiledFor(getQueryArgumentsTypes())) {
+            b = YdbParamBinder.compile(getQueryArgumentsTypes());
+            binder = b;
         }
-        if (v==null) {
-            sb.append("?");
-            return;
+        return b;
+    }
+
+    /**
+     * @param phaseName name of the phase sub-results, null if they are not reported
+     */
+    private static void finishTiming(YdbPhaseTimer timer, SampleResult sample, String phaseName) {
+        timer.onEnd();
+        if (phaseName != null) {
+            timer.addSubResults(sample, phaseName);
         }
-        sb.append(v.toString());
     }
 
-    private long appendRows(StringBuilder sb, ResultSetReader rsr, long totalRows) {
-        final int nc = rsr.getColumnCount();
-        final long maxRows = getIntegerResultSetMaxRows();
-        int nrow = 0;
-        while (rsr.next()) {
-            if (sb.length() >= MAX_STORE_CHARS) {
-                break;
-            }
-            if (maxRows >= 0L && (totalRows + nrow) >= maxRows) {
-                break;
-            }
-            for (int ic=0; ic<nc; ic++) {
-                if (ic>0)
-                    sb.append("\t");
-                val2buf(rsr.getColumn(ic), sb);
-            }
-            sb.append("\n");
-            nrow += 1;
+    private static void appendChecksum(YdbResultRenderer out, YdbResultChecksum cs) {
+        out.append("** Total rows: ").append(cs.getRows())
+                .append("\n** Checksum: ").append(cs.getDigestHex());
+    }
+
+    /**
+     * In the checksum mode the output variables receive the digest and the row count.
+     */
+    private static void grabChecksum(String[] varnames, Map<String, String> vars, YdbResultChecksum cs) {
+        if (varnames.length > 0 && varnames[0].trim().length() > 0) {
+            vars.put(varnames[0].trim(), cs.getDigestHex());
+        }
+        if (varnames.length > 1 && varnames[1].trim().length() > 0) {
+            vars.put(varnames[1].trim(), Long.toString(cs.getRows()));
         }
-        totalRows += rsr.getRowCount();
-        return totalRows;
     }
 
-    private int storeVariables(ResultSetReader rsr, int varPos) {
+    private static int grabVariables(String[] varnames, Map<String, String> vars,
+            ResultSetReader rsr, int varPos) {
         if (rsr.getRowCount()==0)
             return 0;
-        String[] varnames = getVariableNames().split(COMMA);
         if (varnames.length == 0)
             return 0;
         rsr.setRowIndex(0);
-        JMeterVariables jmvars = getThreadContext().getVariables();
         int pos = varPos;
         for (; (pos<varnames.length) && (pos < rsr.getColumnCount()); pos++) {
             String name = varnames[pos].trim();
             if (name.length()==0)
                 continue;
             String value = YdbValueConv.convert(rsr.getColumn(pos).getValue());
-            jmvars.putObject(name, value);
+            vars.put(name, value);
         }
         return pos;
     }
@@ -485,6 +1013,63 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
         this.variableNames = variableNames;
     }
 
+    /**
+     * @return the queryCacheMode
+     */
+    public String getQueryCacheMode() {
+        return queryCacheMode;
+    }
+
+    /**
+     * @param queryCacheMode the query cache mode for data queries
+     */
+    public void setQueryCacheMode(String queryCacheMode) {
+        this.queryCacheMode = queryCacheMode;
+    }
+
+    /**
+     * @return the server-side statistics collection mode for data queries
+     */
+    public String getStatsMode() {
+        return statsMode;
+    }
+
+    /**
+     * @param statsMode the server-side statistics collection mode for data queries
+     */
+    public void setStatsMode(String statsMode) {
+        this.statsMode = statsMode;
+    }
+
+    /**
+     * @return the prefix of the latency histogram files, empty to disable the recording
+     */
+    public String getHistogramFile() {
+        return histogramFile;
+    }
+
+    /**
+     * @param histogramFile the prefix of the latency histogram files
+     */
+    public void setHistogramFile(String histogramFile) {
+        this.histogramFile = histogramFile;
+    }
+
+    /**
+     * @return the expected interval between the requests of a thread in milliseconds,
+     *   for the coordinated omission correction
+     */
+    public String getExpectedInterval() {
+        return expectedInterval;
+    }
+
+    /**
+     * @param expectedInterval the expected interval between the requests in milliseconds
+     */
+    public void setExpectedInterval(String expectedInterval) {
+        this.expectedInterval = expectedInterval;
+    }
+
     /**
      * @return the resultSetHandler
      */
@@ -514,6 +1099,14 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
      */
     @Override
     public void testStarted(String host) {
+        // The display name is not unique, the shared state is keyed by the identity
+        setProperty(ELEMENT_ID, UUID.randomUUID().toString());
+        // Validate the types before the test begins, thread clones compile their own binders
+        binder = null;
+        String types = getPropertyAsString("queryArgumentsTypes");
+        if (types.trim().length() > 0 && !types.contains("${")) {
+            binder = YdbParamBinder.compile(types);
+        }
     }
 
     /**
@@ -531,6 +1124,35 @@ public abstract class AbstractYdbTestElement extends AbstractTestElement
      */
     @Override
     public void testEnded(String host) {
+        YdbBatcher.close(getElementId());
+        YdbRetryStats.report(getName());
+        YdbQueryCacheStats cacheStats = YdbQueryCacheStats.remove(getName());
+        if (cacheStats != null) {
+            LOG.info("Query cache statistics for [{}]: {}", getName(), cacheStats);
+        }
+        YdbQueryStatsTotals statsTotals = YdbQueryStatsTotals.remove(getName());
+        if (statsTotals != null) {
+            LOG.info("Query execution statistics for [{}]: {}", getName(), statsTotals);
+        }
+        YdbLatencyRecorder recorder = YdbLatencyRecorder.remove(getElementId());
+        String prefix = getPropertyAsString("histogramFile").trim();
+        if (recorder != null && prefix.length() > 0) {
+            try {
+                recorder.write(recorder.makeFileName(prefix));
+            } catch(IOException ix) {
+                LOG.error("Failed to write the latency histogram for [{}]", getName(), ix);
+            }
+        }
+        removeProperty(ELEMENT_ID);
+    }
+
+    /**
+     * @return the identity of the test element, which is shared by its thread clones,
+     *   unlike the name, which may be the same for several elements
+     */
+    protected String getElementId() {
+        final String id = getPropertyAsString(ELEMENT_ID);
+        return id.isEmpty() ? getName() : id;
     }
 
     @Override
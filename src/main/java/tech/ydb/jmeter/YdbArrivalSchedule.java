@@ -0,0 +1,206 @@
+package tech.ydb.jmeter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.jmeter.services.FileServer;
+
+/**
+ * Arrival schedule of the open-model load, shared by all threads of a test element.
+ * The request rate is a piecewise linear function of the time since the start of the schedule,
+ * given by the rate points. After the last point the rate stays constant.
+ * Each request takes the next arrival number, and its intended start time is the moment
+ * when the cumulative number of arrivals reaches that number, regardless of the latency
+ * of the requests sent before.
+ *
+ * @author zinal
+ */
+public class YdbArrivalSchedule {
+
+    private static final ConcurrentHashMap<String, YdbArrivalSchedule> ALL = new ConcurrentHashMap<>();
+    private static final double NANOS = 1000000000.0;
+
+    // Rate points: seconds since start, requests per second
+    private final double[] times;
+    private final double[] rates;
+    // Cumulative number of arrivals at each rate point
+    private final double[] totals;
+    private final AtomicLong arrivals = new AtomicLong();
+    private final long startMillis = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param times seconds since start, ascending, the first one being zero
+     * @param rates requests per second at each point, the last one positive
+     */
+    public YdbArrivalSchedule(double[] times, double[] rates) {
+        if (times.length == 0 || times.length != rates.length) {
+            throw new IllegalArgumentException("Rate profile must contain at least one point");
+        }
+        if (rates[rates.length - 1] <= 0.0) {
+            throw new IllegalArgumentException("The final request rate must be positive");
+        }
+        this.times = times.clone();
+        this.rates = rates.clone();
+        this.totals = new double[times.length];
+        for (int i = 1; i < times.length; ++i) {
+            if (times[i] < times[i-1] || rates[i] < 0.0) {
+                throw new IllegalArgumentException("Illegal rate profile point #" + (i+1));
+            }
+            totals[i] = totals[i-1] + (rates[i-1] + rates[i]) * (times[i] - times[i-1]) / 2.0;
+        }
+    }
+
+    /**
+     * Constant rate, optionally reached by the linear ramp-up from zero.
+     *
+     * @param rate requests per second
+     * @param rampSeconds duration of the ramp-up, 0 to start at the full rate
+     * @return the schedule
+     */
+    public static YdbArrivalSchedule ramp(double rate, double rampSeconds) {
+        if (rampSeconds > 0.0) {
+            return new YdbArrivalSchedule(new double[] {0.0, rampSeconds}, new double[] {0.0, rate});
+        }
+        return new YdbArrivalSchedule(new double[] {0.0}, new double[] {rate});
+    }
+
+    /**
+     * Parse the rate profile, one "seconds,rate" point per line.
+     * Empty lines and lines starting with # are ignored.
+     * The rate before the first point is equal to the rate of that point.
+     *
+     * @param lines profile lines
+     * @return the schedule
+     */
+    public static YdbArrivalSchedule parse(List<String> lines) {
+        final List<double[]> points = new ArrayList<>();
+        int lineNo = 0;
+        for (String line : lines) {
+            ++lineNo;
+            line = line.trim();
+            if (line.length() == 0 || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(",");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected seconds,rate at line " + lineNo + ": " + line);
+            }
+            try {
+                points.add(new double[] {
+                    Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()) });
+            } catch(NumberFormatException nfe) {
+                throw new IllegalArgumentException("Illegal number at line " + lineNo + ": " + line);
+            }
+        }
+        if (points.isEmpty()) {
+            throw new IllegalArgumentException("Rate profile is empty");
+        }
+        if (points.get(0)[0] > 0.0) {
+            points.add(0, new double[] {0.0, points.get(0)[1]});
+        }
+        final double[] t = new double[points.size()];
+        final double[] r = new double[points.size()];
+        for (int i = 0; i < t.length; ++i) {
+            t[i] = points.get(i)[0];
+            r[i] = points.get(i)[1];
+        }
+        return new YdbArrivalSchedule(t, r);
+    }
+
+    /**
+     * @param fileName rate profile file, relative to the test plan directory
+     * @return the schedule
+     * @throws IOException on read failure
+     */
+    public static YdbArrivalSchedule load(String fileName) throws IOException {
+        return parse(Files.readAllLines(Paths.get(FileServer.resolveBaseRelativeName(fileName)),
+                AbstractYdbTestElement.CHARSET));
+    }
+
+    /**
+     * @param id test element identity
+     * @return the schedule of the test element, or null if not started yet
+     */
+    public static YdbArrivalSchedule get(String id) {
+        return ALL.get(id);
+    }
+
+    /**
+     * Register the schedule of the test element, unless another thread did it first.
+     * The schedule starts at its creation.
+     *
+     * @param id test element identity, as the name may be the same for several elements
+     * @param schedule the new schedule
+     * @return the schedule actually registered
+     */
+    public static YdbArrivalSchedule register(String id, YdbArrivalSchedule schedule) {
+        final YdbArrivalSchedule prev = ALL.putIfAbsent(id, schedule);
+        return (prev != null) ? prev : schedule;
+    }
+
+    /**
+     * @param id test element identity
+     * @return the removed schedule, or null
+     */
+    public static YdbArrivalSchedule remove(String id) {
+        return ALL.remove(id);
+    }
+
+    /**
+     * Compute the time when the cumulative number of arrivals reaches the specified number.
+     *
+     * @param n arrival number, starting from zero
+     * @return seconds since the start of the schedule
+     */
+    public double timeOf(long n) {
+        final double target = n;
+        int i = times.length - 1;
+        while (i > 0 && totals[i] > target) {
+            --i;
+        }
+        final double left = target - totals[i];
+        if (i == times.length - 1) {
+            return times[i] + left / rates[i];
+        }
+        final double dt = times[i+1] - times[i];
+        final double k = (rates[i+1] - rates[i]) / dt;
+        final double r = rates[i];
+        if (Math.abs(k) < 1e-12) {
+            return times[i] + left / r;
+        }
+        // Solve r*s + k*s^2/2 = left for the offset s within the segment
+        final double s = (Math.sqrt(Math.max(0.0, r * r + 2.0 * k * left)) - r) / k;
+        return times[i] + Math.min(Math.max(s, 0.0), dt);
+    }
+
+    /**
+     * Take the next arrival.
+     *
+     * @return intended start time of the request, in the {@link System#nanoTime()} scale
+     */
+    public long next() {
+        return startNanos + (long) (timeOf(arrivals.getAndIncrement()) * NANOS);
+    }
+
+    /**
+     * @param nanos time in the {@link System#nanoTime()} scale
+     * @return the same moment as the wall-clock milliseconds
+     */
+    public long toMillis(long nanos) {
+        return startMillis + (nanos - startNanos) / 1000000L;
+    }
+
+    /**
+     * @return number of arrivals taken so far
+     */
+    public long getArrivals() {
+        return arrivals.get();
+    }
+
+}
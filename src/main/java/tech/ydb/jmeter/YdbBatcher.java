@@ -0,0 +1,200 @@
+package tech.ydb.jmeter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import tech.ydb.table.query.Params;
+import tech.ydb.table.values.ListValue;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.Value;
+
+/**
+ * Collects the rows submitted by multiple threads into batches.
+ * The batch is executed when it reaches the configured size,
+ * or when the linger time passes since the first row has been added.
+ * Batchers are shared by all threads running the same test element,
+ * and are keyed by the element identity, as several elements may have the same name.
+ *
+ * @author zinal
+ */
+public class YdbBatcher {
+
+    private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(YdbBatcher.class);
+
+    public static final String BATCH_PARAM = "$batch";
+
+    // Linger time used when none is configured, so that the waiting threads never hang
+    public static final long DEFAULT_LINGER = 10L;
+
+    private static final ConcurrentHashMap<String, YdbBatcher> ALL = new ConcurrentHashMap<>();
+
+    private static volatile ScheduledExecutorService timer;
+
+    private final String name;
+    private final int batchSize;
+    private final long lingerMillis;
+
+    private List<StructValue> rows;
+    private List<CompletableFuture<YdbQueryResult>> waiters;
+    private ScheduledFuture<?> lingerTask;
+    private Function<Params, CompletableFuture<YdbQueryResult>> executor;
+
+    private YdbBatcher(String name, int batchSize, long lingerMillis) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.lingerMillis = (lingerMillis > 0L) ? lingerMillis : DEFAULT_LINGER;
+        this.rows = new ArrayList<>(batchSize);
+        this.waiters = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * @param id Test element identity
+     * @param name Test element name
+     * @param batchSize Number of rows in the complete batch
+     * @param lingerMillis Maximum wait time for the incomplete batch
+     * @return The batcher for the test element, created if missing
+     */
+    public static YdbBatcher forName(String id, String name, int batchSize, long lingerMillis) {
+        return ALL.computeIfAbsent(id, k -> new YdbBatcher(name, batchSize, lingerMillis));
+    }
+
+    /**
+     * Execute the rows still waiting in the batcher, and forget it.
+     *
+     * @param id Test element identity
+     */
+    public static void close(String id) {
+        YdbBatcher b = ALL.remove(id);
+        if (b != null) {
+            Batch batch;
+            synchronized(b) {
+                batch = b.takeBatch();
+            }
+            if (batch != null) {
+                LOG.debug("Batcher [{}] executes {} remaining rows on close", b.name, batch.rows.size());
+                batch.run();
+            }
+        }
+    }
+
+    /**
+     * Add the row to the current batch.
+     *
+     * @param row Row data
+     * @param executor Function executing the query with the batch parameter,
+     *   built from the values captured by the submitting thread;
+     *   the batch is executed by the function of its first row
+     * @return The future result of the batch execution
+     */
+    public CompletableFuture<YdbQueryResult> submit(StructValue row,
+            Function<Params, CompletableFuture<YdbQueryResult>> executor) {
+        final CompletableFuture<YdbQueryResult> f = new CompletableFuture<>();
+        Batch batch = null;
+        synchronized(this) {
+            if (rows.isEmpty()) {
+                this.executor = executor;
+            }
+            rows.add(row);
+            waiters.add(f);
+            if (rows.size() >= batchSize) {
+                batch = takeBatch();
+            } else if (lingerTask == null) {
+                lingerTask = getTimer().schedule(this::onLinger, lingerMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (batch != null) {
+            batch.run();
+        }
+        return f;
+    }
+
+    private void onLinger() {
+        Batch batch;
+        synchronized(this) {
+            lingerTask = null;
+            batch = takeBatch();
+        }
+        if (batch != null) {
+            batch.run();
+        }
+    }
+
+    private Batch takeBatch() {
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Batch batch = new Batch(rows, waiters, executor);
+        executor = null;
+        rows = new ArrayList<>(batchSize);
+        waiters = new ArrayList<>(batchSize);
+        return batch;
+    }
+
+    private static ScheduledExecutorService getTimer() {
+        ScheduledExecutorService t = timer;
+        if (t == null) {
+            synchronized(YdbBatcher.class) {
+                t = timer;
+                if (t == null) {
+                    t = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread thread = new Thread(r, "ydb-batcher");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    timer = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    @Override
+    public String toString() {
+        return "YdbBatcher{" + name + ", " + batchSize + " rows, " + lingerMillis + " ms}";
+    }
+
+    private static final class Batch {
+        final List<StructValue> rows;
+        final List<CompletableFuture<YdbQueryResult>> waiters;
+        final Function<Params, CompletableFuture<YdbQueryResult>> executor;
+
+        Batch(List<StructValue> rows, List<CompletableFuture<YdbQueryResult>> waiters,
+                Function<Params, CompletableFuture<YdbQueryResult>> executor) {
+            this.rows = rows;
+            this.waiters = waiters;
+            this.executor = executor;
+        }
+
+        void run() {
+            CompletableFuture<YdbQueryResult> result;
+            try {
+                ListValue data = ListValue.of(rows.toArray(new Value<?>[rows.size()]));
+                result = executor.apply(Params.of(BATCH_PARAM, data));
+            } catch(Exception ex) {
+                result = new CompletableFuture<>();
+                result.completeExceptionally(ex);
+            }
+            result.whenComplete((res, ex) -> {
+                for (CompletableFuture<YdbQueryResult> f : waiters) {
+                    if (ex != null) {
+                        f.completeExceptionally(ex);
+                    } else {
+                        f.complete(res);
+                    }
+                }
+            });
+        }
+    }
+
+}
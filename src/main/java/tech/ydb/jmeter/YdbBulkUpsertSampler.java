@@ -0,0 +1,358 @@
+package tech.ydb.jmeter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import org.apache.jmeter.gui.TestElementMetadata;
+import org.apache.jmeter.samplers.Entry;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.samplers.Sampler;
+import org.apache.jmeter.services.FileServer;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.testelement.ThreadListener;
+
+import tech.ydb.table.settings.BulkUpsertSettings;
+import tech.ydb.table.values.ListValue;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.Value;
+
+/**
+ * A sampler which writes batches of rows to the YDB table with BulkUpsert.
+ *
+ * Rows are either built from the row values (typically referring JMeter variables),
+ * one row per call, or read from the CSV file shared between the threads.
+ * Each thread collects the rows into its own batch, which is written
+ * when the row count or the size limit is reached.
+ *
+ * @author zinal
+ */
+@TestElementMetadata(labelResource = "displayName")
+public class YdbBulkUpsertSampler extends AbstractTestElement
+        implements Sampler, TestBean, ThreadListener, TestStateListener {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOG = LoggerFactory.getLogger(YdbBulkUpsertSampler.class);
+
+    protected static final java.nio.charset.Charset CHARSET = AbstractYdbTestElement.CHARSET;
+
+    private String dataSource = "";
+    private String tablePath = "";
+    private String columnNames = "";
+    private String columnTypes = "";
+    private String rowValues = "";
+    private String csvFile = "";
+    private String batchRows = "";
+    private String batchBytes = "";
+    private String queryTimeout = "";
+
+    // Per-thread state
+    private transient YdbParamBinder binder;
+    private transient String[] columns;
+    private transient List<Value<?>> rows;
+    private transient long bytes;
+    private transient boolean csvReserved;
+
+    public YdbBulkUpsertSampler() {
+    }
+
+    @Override
+    public SampleResult sample(Entry e) {
+        if (rows == null) {
+            rows = new ArrayList<>();
+        }
+        try {
+            if (StringUtils.isBlank(getCsvFile())) {
+                addRow(getRowValues());
+                if (!isBatchComplete()) {
+                    // Nothing to report until the batch is written
+                    return null;
+                }
+            } else if (!readCsvBatch()) {
+                // End of file: write the rest, then stop the thread
+                getThreadContext().getThread().stop();
+                if (rows.isEmpty()) {
+                    return null;
+                }
+            }
+        } catch (Exception ex) {
+            SampleResult res = newSampleResult();
+            res.sampleStart();
+            fillError(res, ex);
+            res.sampleEnd();
+            return res;
+        }
+        return flush();
+    }
+
+    private SampleResult flush() {
+        final int count = rows.size();
+        final long size = bytes;
+        final SampleResult res = newSampleResult();
+        res.sampleStart();
+        try {
+            YdbConnection conn;
+            try {
+                conn = getConnection();
+            } finally {
+                res.connectEnd();
+            }
+            final ListValue data = ListValue.of(rows.toArray(new Value<?>[count]));
+            rows.clear();
+            bytes = 0L;
+            final String path = makeTablePath(conn);
+            final BulkUpsertSettings settings = makeSettings();
+            final YdbRetryHandler handler = new YdbRetryHandler(getName());
+            final YdbConnection c = conn;
+            c.track(() -> c.getTableCtx().supplyStatus(handler,
+                    session -> session.executeBulkUpsert(path, data, settings)))
+                    .join().expectSuccess();
+            res.latencyEnd();
+            res.setSampleCount(count);
+            res.setSentBytes(size);
+            res.setResponseData(("** Rows: " + count + ", bytes: " + size).getBytes(CHARSET));
+            res.setResponseHeaders(YdbUtils.responseHeaders(conn.getConnectionInfo(), handler.formatTrace()));
+            res.setURL(new YdbQueryResult(new byte[0], handler.getRetryCount()).makeURL());
+        } catch (Exception ex) {
+            rows.clear();
+            bytes = 0L;
+            fillError(res, (ex instanceof CompletionException && ex.getCause() != null)
+                    ? ex.getCause() : ex);
+        }
+        res.sampleEnd();
+        return res;
+    }
+
+    private boolean isBatchComplete() {
+        return rows.size() >= getIntegerBatchRows()
+                || bytes >= getLongBatchBytes();
+    }
+
+    private void addRow(String values) {
+        if (binder == null || !binder.isCompiledFor(getColumnTypes())) {
+            binder = YdbParamBinder.compile(getColumnTypes());
+            columns = getColumnNames().split(",");
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = columns[i].trim();
+            }
+            if (columns.length != binder.getCount()) {
+                throw new IllegalArgumentException("number of columns ("
+                        + columns.length + ") and number of types ("
+                        + binder.getCount() + ") are not equal");
+            }
+        }
+        final Value<?>[] converted = binder.convert(values);
+        final Map<String, Value<?>> members = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            members.put(columns[i], converted[i]);
+        }
+        final StructValue row = StructValue.of(members);
+        rows.add(row);
+        // Estimated, as the protobuf form of the row would be built twice otherwise
+        bytes += YdbUtils.estimateSize(row);
+    }
+
+    /**
+     * Read the next batch of rows from the CSV file.
+     *
+     * @return false if the end of file is reached
+     */
+    private boolean readCsvBatch() throws IOException {
+        final FileServer fs = FileServer.getFileServer();
+        final String fileName = getCsvFile();
+        if (!csvReserved) {
+            fs.reserveFile(fileName, CHARSET.name(), fileName, false);
+            csvReserved = true;
+        }
+        while (!isBatchComplete()) {
+            String line = fs.readLine(fileName, false, false);
+            if (line == null) {
+                return false;
+            }
+            if (line.trim().length() > 0) {
+                addRow(line);
+            }
+        }
+        return true;
+    }
+
+    private String makeTablePath(YdbConnection conn) {
+        String path = getTablePath().trim();
+        if (path.startsWith("/")) {
+            return path;
+        }
+        return conn.getDatabase() + "/" + path;
+    }
+
+    private BulkUpsertSettings makeSettings() {
+        BulkUpsertSettings ret = new BulkUpsertSettings();
+        int timeout = YdbUtils.parseInt(getQueryTimeout(), 0);
+        if (timeout > 0) {
+            ret.setCancelAfter(java.time.Duration.ofSeconds(timeout));
+            ret.setTimeout(java.time.Duration.ofSeconds(timeout+1));
+        }
+        return ret;
+    }
+
+    private YdbConnection getConnection() {
+        if (StringUtils.isBlank(getDataSource())) {
+            throw new IllegalArgumentException("Name for DataSoure must not be empty in " + getName());
+        }
+        return YdbConfigElement.getConnection(getDataSource());
+    }
+
+    private SampleResult newSampleResult() {
+        SampleResult res = new SampleResult();
+        res.setSampleLabel(getName());
+        res.setSamplerData("[BulkUpsert] " + getTablePath() + "\n" + getColumnNames()
+                + "\n" + getColumnTypes());
+        res.setDataType(SampleResult.TEXT);
+        res.setContentType("text/plain");
+        res.setDataEncoding(CHARSET.name());
+        res.setSuccessful(true);
+        res.setResponseMessageOK();
+        res.setResponseCodeOK();
+        return res;
+    }
+
+    private static void fillError(SampleResult res, Throwable ex) {
+        res.setResponseMessage(YdbUtils.fullMessage(ex));
+        res.setResponseCode(YdbUtils.responseCode(ex));
+        res.setResponseData(
+                ObjectUtils.defaultIfNull(ex.getMessage(), "NO MESSAGE"),
+                res.getDataEncodingWithDefault());
+        res.setSuccessful(false);
+    }
+
+    @Override
+    public void threadStarted() {
+    }
+
+    @Override
+    public void threadFinished() {
+        if (rows != null && !rows.isEmpty()) {
+            // There is no way to report the sample here, so just write the rows
+            final int count = rows.size();
+            SampleResult res = flush();
+            if (res.isSuccessful()) {
+                LOG.debug("Sampler [{}] wrote the remaining {} rows on thread exit",
+                        getName(), count);
+            } else {
+                LOG.warn("Sampler [{}] failed to write the remaining {} rows on thread exit: {}",
+                        getName(), count, res.getResponseMessage());
+            }
+        }
+    }
+
+    @Override
+    public void testStarted() {
+    }
+
+    @Override
+    public void testStarted(String host) {
+    }
+
+    @Override
+    public void testEnded() {
+        testEnded("");
+    }
+
+    @Override
+    public void testEnded(String host) {
+        YdbRetryStats.report(getName());
+    }
+
+    public int getIntegerBatchRows() {
+        int value = YdbUtils.parseInt(getBatchRows(), 1000);
+        return (value > 0) ? value : 1000;
+    }
+
+    public long getLongBatchBytes() {
+        long value = YdbUtils.parseLong(getBatchBytes(), 0L);
+        return (value > 0L) ? value : Long.MAX_VALUE;
+    }
+
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(String dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public String getTablePath() {
+        return tablePath;
+    }
+
+    public void setTablePath(String tablePath) {
+        this.tablePath = tablePath;
+    }
+
+    public String getColumnNames() {
+        return columnNames;
+    }
+
+    public void setColumnNames(String columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    public String getColumnTypes() {
+        return columnTypes;
+    }
+
+    public void setColumnTypes(String columnTypes) {
+        this.columnTypes = columnTypes;
+    }
+
+    public String getRowValues() {
+        return rowValues;
+    }
+
+    public void setRowValues(String rowValues) {
+        this.rowValues = rowValues;
+    }
+
+    public String getCsvFile() {
+        return csvFile;
+    }
+
+    public void setCsvFile(String csvFile) {
+        this.csvFile = csvFile;
+    }
+
+    public String getBatchRows() {
+        return batchRows;
+    }
+
+    public void setBatchRows(String batchRows) {
+        this.batchRows = batchRows;
+    }
+
+    public String getBatchBytes() {
+        return batchBytes;
+    }
+
+    public void setBatchBytes(String batchBytes) {
+        this.batchBytes = batchBytes;
+    }
+
+    public String getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    public void setQueryTimeout(String queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
+}
@@ -0,0 +1,57 @@
+package tech.ydb.jmeter;
+
+import java.beans.PropertyDescriptor;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+import org.apache.jmeter.testbeans.gui.TypeEditor;
+
+public class YdbBulkUpsertSamplerBeanInfo extends BeanInfoSupport {
+
+    public YdbBulkUpsertSamplerBeanInfo() {
+        super(YdbBulkUpsertSampler.class);
+
+        createPropertyGroup("varName", new String[] { "dataSource" });
+
+        createPropertyGroup("table", new String[] {
+            "tablePath", "columnNames", "columnTypes", "queryTimeout" });
+
+        createPropertyGroup("rows", new String[] {
+            "rowValues", "csvFile", "batchRows", "batchBytes" });
+
+        PropertyDescriptor p = property("dataSource");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("tablePath");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("columnNames");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("columnTypes");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("queryTimeout");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("rowValues");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("csvFile", TypeEditor.FileEditor);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("batchRows");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "1000");
+
+        p = property("batchBytes");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "4194304");
+    }
+}
@@ -17,6 +17,12 @@ import org.apache.jmeter.threads.JMeterVariables;
 /**
  * YDB connection configuration element.
  *
+ * The connection is registered in the process-wide {@link YdbConnectionRegistry} under
+ * the data source name, so that the elements with the same name in several thread groups
+ * share a single transport and session pool.
+ * The optional warm-up of the newly opened connection runs within testStarted,
+ * so that the samplers start with the session pool already filled.
+ *
  * @author zinal
  */
 @TestElementMetadata(labelResource = "displayName")
@@ -26,6 +32,19 @@ public class YdbConfigElement extends AbstractTestElement
     private static final long serialVersionUID = 1L;
     private static final Logger LOG = LoggerFactory.getLogger(YdbConfigElement.class);
 
+    // Callback executor types (used to communicate with GUI)
+    // N.B. These must not be changed, as they are used in the JMX files
+    public static final String EXECUTOR_DEFAULT = "Default";
+    public static final String EXECUTOR_DIRECT = "Direct";
+    public static final String EXECUTOR_FIXED = "Fixed Thread Pool";
+    // Balancing policies
+    public static final String BALANCING_DEFAULT = "Default";
+    public static final String BALANCING_RANDOM = "Random Node";
+    public static final String BALANCING_LOCAL_DC = "Prefer Local DC";
+    // Compression modes
+    public static final String COMPRESSION_NONE = "None";
+    public static final String COMPRESSION_GZIP = "gzip";
+
     private transient String dataSource;
     private transient String endpoint;
     private transient String database;
@@ -36,8 +55,32 @@ public class YdbConfigElement extends AbstractTestElement
     private transient String tlsCertFile;
     private transient String poolMax;
     private transient String retriesMax;
+    private transient String connectTimeout;
+    private transient String keepAliveTime;
+    private transient String keepAliveTimeout;
+    private transient String maxInboundMessageSize;
+    private transient String callExecutor;
+    private transient String callExecutorThreads;
+    private transient String balancingPolicy;
+    private transient String preferredLocation;
+    private transient String compression;
+    private transient String transportCount;
+    private transient String transportSelection;
+    private transient boolean warmUpSessions;
+    private transient String warmUpQuery;
+    private transient String warmUpCount;
+    private transient String warmUpDuration;
+    private transient String keyBlockSize;
+    private transient String keyStart;
+    private transient String keySequenceTable;
+    // Data source name acquired from the registry by this element
+    private transient String acquired;
 
     public static String getConnectionInfo(String poolName) {
+        YdbConnection conn = YdbConnectionRegistry.get(poolName);
+        if (conn != null) {
+            return conn.getConnectionInfo();
+        }
         Object poolObject =
                 JMeterContextService.getContext().getVariables().getObject(poolName);
         if (poolObject instanceof YdbConnection) {
@@ -49,6 +92,10 @@ public class YdbConfigElement extends AbstractTestElement
     }
 
     public static YdbConnection getConnection(String poolName) {
+        YdbConnection conn = YdbConnectionRegistry.get(poolName);
+        if (conn != null) {
+            return conn;
+        }
         Object poolObject =
                 JMeterContextService.getContext().getVariables().getObject(poolName);
         if (poolObject == null) {
@@ -86,12 +133,55 @@ public class YdbConfigElement extends AbstractTestElement
             String poolName = getDataSource();
             if (StringUtils.isBlank(poolName)) {
                 throw new IllegalArgumentException("Name for DataSoure must not be empty in " + getName());
-            } else if (variables.getObject(poolName) != null) {
-                LOG.error("YDB data source already defined for: {}", poolName);
-            } else {
-                variables.putObject(poolName, new YdbConnection(this));
+            }
+            if (acquired == null) {
+                YdbConnection conn = YdbConnectionRegistry.acquire(poolName, this::openGroup).select();
+                acquired = poolName;
+                // Keep the variable for the scripts referring the connection directly
+                Object o = variables.getObject(poolName);
+                if (o == null) {
+                    variables.putObject(poolName, conn);
+                } else if (o != conn) {
+                    LOG.error("Variable {} is already used for another object", poolName);
+                }
+            }
+        }
+    }
+
+    private YdbConnectionGroup openGroup() {
+        final YdbConnection[] members = new YdbConnection[getTransportCountInt()];
+        try {
+            for (int i = 0; i < members.length; ++i) {
+                members[i] = openConnection();
+            }
+        } catch (RuntimeException ex) {
+            for (YdbConnection c : members) {
+                if (c != null) {
+                    c.close();
+                }
+            }
+            throw ex;
+        }
+        YdbKeyAllocator.register(new YdbKeyAllocator(getDataSource(),
+                YdbUtils.parseLong(getKeyBlockSize(), 1000L), YdbUtils.parseLong(getKeyStart(), 1L),
+                getKeySequenceTable()));
+        return new YdbConnectionGroup(getDataSource(), members, getTransportSelection());
+    }
+
+    private YdbConnection openConnection() {
+        final YdbConnection conn = new YdbConnection(this);
+        final boolean hasQuery = StringUtils.isNotBlank(getWarmUpQuery());
+        if (warmUpSessions || hasQuery) {
+            YdbWarmUp wu = new YdbWarmUp(getDataSource(), conn, getPoolMaxInt());
+            if (warmUpSessions) {
+                wu.warmUpSessions();
+            }
+            if (hasQuery) {
+                wu.warmUpQuery(getWarmUpQuery(), YdbUtils.parseLong(getWarmUpCount(), 0L),
+                        1000L * YdbUtils.parseLong(getWarmUpDuration(), 0L));
             }
         }
+        return conn;
     }
 
     @Override
@@ -102,14 +192,13 @@ public class YdbConfigElement extends AbstractTestElement
     @Override
     public void testEnded() {
         synchronized(this) {
-            JMeterVariables variables = getThreadContext().getVariables();
-            String poolName = getDataSource();
-            if (! StringUtils.isBlank(poolName)) {
-                Object o = variables.getObject(poolName);
-                if (o instanceof YdbConnection) {
-                    ((YdbConnection)o).close();
-                    variables.remove(poolName);
+            if (acquired != null) {
+                JMeterVariables variables = getThreadContext().getVariables();
+                if (variables.getObject(acquired) instanceof YdbConnection) {
+                    variables.remove(acquired);
                 }
+                YdbConnectionRegistry.release(acquired);
+                acquired = null;
             }
         }
     }
@@ -225,6 +314,154 @@ public class YdbConfigElement extends AbstractTestElement
         this.retriesMax = retriesMax;
     }
 
+    public String getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(String connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public String getKeepAliveTime() {
+        return keepAliveTime;
+    }
+
+    public void setKeepAliveTime(String keepAliveTime) {
+        this.keepAliveTime = keepAliveTime;
+    }
+
+    public String getKeepAliveTimeout() {
+        return keepAliveTimeout;
+    }
+
+    public void setKeepAliveTimeout(String keepAliveTimeout) {
+        this.keepAliveTimeout = keepAliveTimeout;
+    }
+
+    public String getMaxInboundMessageSize() {
+        return maxInboundMessageSize;
+    }
+
+    public void setMaxInboundMessageSize(String maxInboundMessageSize) {
+        this.maxInboundMessageSize = maxInboundMessageSize;
+    }
+
+    public String getCallExecutor() {
+        return callExecutor;
+    }
+
+    public void setCallExecutor(String callExecutor) {
+        this.callExecutor = callExecutor;
+    }
+
+    public String getCallExecutorThreads() {
+        return callExecutorThreads;
+    }
+
+    public void setCallExecutorThreads(String callExecutorThreads) {
+        this.callExecutorThreads = callExecutorThreads;
+    }
+
+    public String getBalancingPolicy() {
+        return balancingPolicy;
+    }
+
+    public void setBalancingPolicy(String balancingPolicy) {
+        this.balancingPolicy = balancingPolicy;
+    }
+
+    public String getPreferredLocation() {
+        return preferredLocation;
+    }
+
+    public void setPreferredLocation(String preferredLocation) {
+        this.preferredLocation = preferredLocation;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public int getTransportCountInt() {
+        return Math.max(1, YdbUtils.parseInt(getTransportCount(), 1));
+    }
+
+    public String getTransportCount() {
+        return transportCount;
+    }
+
+    public void setTransportCount(String transportCount) {
+        this.transportCount = transportCount;
+    }
+
+    public String getTransportSelection() {
+        return transportSelection;
+    }
+
+    public void setTransportSelection(String transportSelection) {
+        this.transportSelection = transportSelection;
+    }
+
+    public boolean isWarmUpSessions() {
+        return warmUpSessions;
+    }
+
+    public void setWarmUpSessions(boolean warmUpSessions) {
+        this.warmUpSessions = warmUpSessions;
+    }
+
+    public String getWarmUpQuery() {
+        return warmUpQuery;
+    }
+
+    public void setWarmUpQuery(String warmUpQuery) {
+        this.warmUpQuery = warmUpQuery;
+    }
+
+    public String getWarmUpCount() {
+        return warmUpCount;
+    }
+
+    public void setWarmUpCount(String warmUpCount) {
+        this.warmUpCount = warmUpCount;
+    }
+
+    public String getWarmUpDuration() {
+        return warmUpDuration;
+    }
+
+    public void setWarmUpDuration(String warmUpDuration) {
+        this.warmUpDuration = warmUpDuration;
+    }
+
+    public String getKeyBlockSize() {
+        return keyBlockSize;
+    }
+
+    public void setKeyBlockSize(String keyBlockSize) {
+        this.keyBlockSize = keyBlockSize;
+    }
+
+    public String getKeyStart() {
+        return keyStart;
+    }
+
+    public void setKeyStart(String keyStart) {
+        this.keyStart = keyStart;
+    }
+
+    public String getKeySequenceTable() {
+        return keySequenceTable;
+    }
+
+    public void setKeySequenceTable(String keySequenceTable) {
+        this.keySequenceTable = keySequenceTable;
+    }
+
     public enum AuthMode {
 
         NONE,
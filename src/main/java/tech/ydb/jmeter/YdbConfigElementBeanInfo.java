@@ -12,10 +12,19 @@ public class YdbConfigElementBeanInfo extends BeanInfoSupport {
         createPropertyGroup("varName", new String[] { "dataSource" });
 
         createPropertyGroup("database", new String[] { "endpoint", "database", 
-            "tlsCertFile", "poolMax", "retriesMax" });
+            "tlsCertFile", "poolMax", "retriesMax", "transportCount", "transportSelection" });
 
         createPropertyGroup("auth", new String[] { "authMode", "username", "password", "saKeyFile" });
 
+        createPropertyGroup("tuning", new String[] { "connectTimeout", "keepAliveTime", "keepAliveTimeout",
+            "maxInboundMessageSize", "callExecutor", "callExecutorThreads",
+            "balancingPolicy", "preferredLocation", "compression" });
+
+        createPropertyGroup("warmUp", new String[] { "warmUpSessions", "warmUpQuery",
+            "warmUpCount", "warmUpDuration" });
+
+        createPropertyGroup("keys", new String[] { "keyBlockSize", "keyStart", "keySequenceTable" });
+
         PropertyDescriptor p = property("dataSource");
         p.setValue(NOT_UNDEFINED, Boolean.TRUE);
         p.setValue(DEFAULT, "");
@@ -39,6 +48,19 @@ public class YdbConfigElementBeanInfo extends BeanInfoSupport {
         p.setValue(NOT_UNDEFINED, Boolean.TRUE);
         p.setValue(DEFAULT, "-1");
 
+        p = property("transportCount");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "1");
+
+        p = property("transportSelection");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, YdbConnectionGroup.SELECT_ROUND_ROBIN);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(TAGS,new String[]{
+                YdbConnectionGroup.SELECT_ROUND_ROBIN,
+                YdbConnectionGroup.SELECT_LEAST_IN_FLIGHT,
+                });
+
         p = property("authMode");
         p.setValue(NOT_UNDEFINED, Boolean.TRUE);
         p.setValue(DEFAULT, YdbConfigElement.AuthMode.STATIC.name());
@@ -60,5 +82,74 @@ public class YdbConfigElementBeanInfo extends BeanInfoSupport {
         p = property("password", TypeEditor.PasswordEditor);
         p.setValue(NOT_UNDEFINED, Boolean.TRUE);
         p.setValue(DEFAULT, "");
+
+        p = property("connectTimeout");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p = property("keepAliveTime");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p = property("keepAliveTimeout");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p = property("maxInboundMessageSize");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p = property("callExecutor");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, YdbConfigElement.EXECUTOR_DEFAULT);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(TAGS,new String[]{
+                YdbConfigElement.EXECUTOR_DEFAULT,
+                YdbConfigElement.EXECUTOR_DIRECT,
+                YdbConfigElement.EXECUTOR_FIXED,
+                });
+        p = property("callExecutorThreads");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p = property("balancingPolicy");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, YdbConfigElement.BALANCING_DEFAULT);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(TAGS,new String[]{
+                YdbConfigElement.BALANCING_DEFAULT,
+                YdbConfigElement.BALANCING_RANDOM,
+                YdbConfigElement.BALANCING_LOCAL_DC,
+                });
+        p = property("preferredLocation");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p = property("compression");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, YdbConfigElement.COMPRESSION_NONE);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(TAGS,new String[]{
+                YdbConfigElement.COMPRESSION_NONE,
+                YdbConfigElement.COMPRESSION_GZIP,
+                });
+
+        p = property("warmUpSessions");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.FALSE);
+        p = property("warmUpQuery", TypeEditor.TextAreaEditor);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p.setValue(TEXT_LANGUAGE, "sql");
+        p = property("warmUpCount");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p = property("warmUpDuration");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("keyBlockSize");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "1000");
+        p = property("keyStart");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "1");
+        p = property("keySequenceTable");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
     }
 }
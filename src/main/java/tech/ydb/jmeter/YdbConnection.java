@@ -3,15 +3,35 @@ package tech.ydb.jmeter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 
 import tech.ydb.auth.iam.CloudAuthHelper;
+import tech.ydb.core.Result;
 import tech.ydb.core.auth.StaticCredentials;
+import tech.ydb.core.grpc.BalancingSettings;
 import tech.ydb.core.grpc.GrpcTransport;
 import tech.ydb.core.grpc.GrpcTransportBuilder;
 import tech.ydb.query.QueryClient;
+import tech.ydb.table.Session;
 import tech.ydb.table.TableClient;
+import tech.ydb.table.query.DataQuery;
+import tech.ydb.table.settings.PrepareDataQuerySettings;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
 
 /**
  *
@@ -21,7 +41,11 @@ public class YdbConnection implements AutoCloseable {
 
     private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(YdbConnection.class);
 
+    // Upper limit for the number of prepared queries kept across all sessions
+    private static final int PREPARED_MAX = 10000;
+
     private final GrpcTransport transport;
+    private final ExecutorService callExecutor;
     private final QueryClient queryClient;
     private final TableClient tableClient;
     private final tech.ydb.table.SessionRetryContext tableCtx;
@@ -29,6 +53,12 @@ public class YdbConnection implements AutoCloseable {
     private final String endpoint;
     private final String database;
     private final YdbConfigElement.AuthMode authMode;
+    private final ConcurrentHashMap<String, DataQuery> preparedQueries = new ConcurrentHashMap<>();
+    // Requests in flight over this transport, for the selection within the connection group
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger inFlightPeak = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private volatile String transportLabel = "";
 
     public YdbConnection(YdbConfigElement config) {
         GrpcTransportBuilder builder = GrpcTransport
@@ -63,8 +93,11 @@ public class YdbConnection implements AutoCloseable {
             }
             builder.withSecureConnection(cert);
         }
-        GrpcTransport gt = builder.build();
+        this.callExecutor = makeCallExecutor(config);
+        GrpcTransport gt = null;
+        boolean success = false;
         try {
+            gt = configureTransport(builder, config).build();
             this.queryClient = QueryClient.newClient(gt)
                     .sessionPoolMinSize(1)
                     .sessionPoolMaxSize(config.getPoolMaxInt())
@@ -86,12 +119,78 @@ public class YdbConnection implements AutoCloseable {
             this.authMode = config.getAuthModeCode();
             this.database = gt.getDatabase();
             this.transport = gt;
-            gt = null;
+            success = true;
         } finally {
-            if (gt != null) {
-                gt.close();
+            if (! success) {
+                if (gt != null) {
+                    gt.close();
+                }
+                if (callExecutor != null) {
+                    callExecutor.shutdownNow();
+                }
+            }
+        }
+    }
+
+    private static ExecutorService makeCallExecutor(YdbConfigElement config) {
+        if (YdbConfigElement.EXECUTOR_FIXED.equals(config.getCallExecutor())) {
+            int threads = YdbUtils.parseInt(config.getCallExecutorThreads(), 0);
+            if (threads <= 0) {
+                threads = Runtime.getRuntime().availableProcessors();
             }
+            return Executors.newFixedThreadPool(threads);
         }
+        return null;
+    }
+
+    /**
+     * Apply the transport tuning settings. They are shared by the table and query clients,
+     * which use the same transport.
+     */
+    private GrpcTransportBuilder configureTransport(GrpcTransportBuilder builder, YdbConfigElement config) {
+        final long connectTimeout = YdbUtils.parseLong(config.getConnectTimeout(), 0L);
+        if (connectTimeout > 0L) {
+            builder = builder.withConnectTimeout(Duration.ofSeconds(connectTimeout));
+        }
+        final String balancing = config.getBalancingPolicy();
+        if (YdbConfigElement.BALANCING_RANDOM.equals(balancing)) {
+            builder = builder.withBalancingSettings(
+                    BalancingSettings.fromPolicy(BalancingSettings.Policy.USE_ALL_NODES));
+        } else if (YdbConfigElement.BALANCING_LOCAL_DC.equals(balancing)) {
+            if (StringUtils.isNotBlank(config.getPreferredLocation())) {
+                builder = builder.withBalancingSettings(
+                        BalancingSettings.fromLocation(config.getPreferredLocation().trim()));
+            } else {
+                builder = builder.withBalancingSettings(BalancingSettings.detectLocalDs());
+            }
+        }
+        if (callExecutor != null) {
+            builder = builder.withCallExecutor(callExecutor);
+        } else if (YdbConfigElement.EXECUTOR_DIRECT.equals(config.getCallExecutor())) {
+            builder = builder.withCallExecutor(Runnable::run);
+        }
+        final long keepAliveTime = YdbUtils.parseLong(config.getKeepAliveTime(), 0L);
+        final long keepAliveTimeout = YdbUtils.parseLong(config.getKeepAliveTimeout(), 0L);
+        final int maxInboundMb = YdbUtils.parseInt(config.getMaxInboundMessageSize(), 0);
+        final boolean gzip = YdbConfigElement.COMPRESSION_GZIP.equals(config.getCompression());
+        if (keepAliveTime > 0L || keepAliveTimeout > 0L || maxInboundMb > 0 || gzip) {
+            builder = builder.withChannelInitializer(cb -> {
+                if (keepAliveTime > 0L) {
+                    cb.keepAliveTime(keepAliveTime, TimeUnit.SECONDS);
+                    cb.keepAliveWithoutCalls(true);
+                }
+                if (keepAliveTimeout > 0L) {
+                    cb.keepAliveTimeout(keepAliveTimeout, TimeUnit.SECONDS);
+                }
+                if (maxInboundMb > 0) {
+                    cb.maxInboundMessageSize(maxInboundMb * 1024 * 1024);
+                }
+                if (gzip) {
+                    cb.intercept(new CompressionInterceptor("gzip"));
+                }
+            });
+        }
+        return builder;
     }
 
     public TableClient getTableClient() {
@@ -114,8 +213,88 @@ public class YdbConnection implements AutoCloseable {
         return database;
     }
 
+    /**
+     * Prepare the data query on the specified session.
+     * The prepared query is reused on the subsequent calls for the same session and query text.
+     *
+     * @param session Table service session
+     * @param query Query text
+     * @param settings Prepare settings
+     * @param stats Statistics to register the prepare calls, or null
+     * @return The prepared query
+     */
+    public CompletableFuture<Result<DataQuery>> prepareDataQuery(Session session, String query,
+            PrepareDataQuerySettings settings, YdbQueryCacheStats stats) {
+        final String key = session.getId() + "\n" + query;
+        DataQuery dq = preparedQueries.get(key);
+        if (dq != null) {
+            return CompletableFuture.completedFuture(Result.success(dq));
+        }
+        if (stats != null) {
+            stats.onPrepare();
+        }
+        return session.prepareDataQuery(query, settings).thenApply(res -> {
+            if (res.isSuccess()) {
+                if (preparedQueries.size() >= PREPARED_MAX) {
+                    // Entries of the closed sessions are never reused, so drop everything
+                    preparedQueries.clear();
+                }
+                preparedQueries.put(key, res.getValue());
+            }
+            return res;
+        });
+    }
+
+    /**
+     * Forget the prepared query, for example after the execution failure.
+     *
+     * @param session Table service session
+     * @param query Query text
+     */
+    public void forgetDataQuery(Session session, String query) {
+        preparedQueries.remove(session.getId() + "\n" + query);
+    }
+
+    /**
+     * Run the request over this transport, counting it as in flight till its completion.
+     *
+     * @param <T> result type
+     * @param call the request
+     * @return the future result of the request
+     */
+    public <T> CompletableFuture<T> track(Supplier<CompletableFuture<T>> call) {
+        final int current = inFlight.incrementAndGet();
+        inFlightPeak.accumulateAndGet(current, Math::max);
+        requests.increment();
+        final CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException ex) {
+            inFlight.decrementAndGet();
+            throw ex;
+        }
+        return future.whenComplete((res, ex) -> inFlight.decrementAndGet());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getInFlightPeak() {
+        return inFlightPeak.get();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    void setTransportLabel(String transportLabel) {
+        this.transportLabel = transportLabel;
+    }
+
     @Override
     public void close() {
+        preparedQueries.clear();
         if (queryClient != null) {
             try {
                 queryClient.close();
@@ -137,6 +316,9 @@ public class YdbConnection implements AutoCloseable {
                 LOG.warn("GrpcTransport closing threw an exception", ex);
             }
         }
+        if (callExecutor != null) {
+            callExecutor.shutdown();
+        }
     }
 
     public String getConnectionInfo() {
@@ -144,7 +326,29 @@ public class YdbConnection implements AutoCloseable {
         builder.append(", endpoint:").append(endpoint)
                 .append(", database:").append(database)
                 .append(", authMode:").append(authMode.name());
+        if (transportLabel.length() > 0) {
+            builder.append(", transport:").append(transportLabel)
+                    .append(", inFlight:").append(getInFlight());
+        }
         return builder.toString();
     }
 
+    /**
+     * Requests the message compression for every call over the channel.
+     */
+    private static final class CompressionInterceptor implements ClientInterceptor {
+
+        private final String compressor;
+
+        CompressionInterceptor(String compressor) {
+            this.compressor = compressor;
+        }
+
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                CallOptions callOptions, Channel next) {
+            return next.newCall(method, callOptions.withCompression(compressor));
+        }
+    }
+
 }
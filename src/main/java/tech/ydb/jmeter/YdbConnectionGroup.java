@@ -0,0 +1,86 @@
+package tech.ydb.jmeter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Several independent transports with their own clients and session pools, serving a single data source.
+ * Spreading the requests over the transports avoids the limits of a single HTTP/2 connection,
+ * like the number of concurrent streams and the connection-level flow control window.
+ *
+ * @author zinal
+ */
+public class YdbConnectionGroup implements AutoCloseable {
+
+    private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(YdbConnectionGroup.class);
+
+    // Transport selection modes (used to communicate with GUI)
+    // N.B. These must not be changed, as they are used in the JMX files
+    public static final String SELECT_ROUND_ROBIN = "Round Robin";
+    public static final String SELECT_LEAST_IN_FLIGHT = "Least In-Flight";
+
+    private final String name;
+    private final YdbConnection[] members;
+    private final boolean leastInFlight;
+    private final AtomicInteger position = new AtomicInteger();
+
+    /**
+     * @param name data source name
+     * @param members opened connections, at least one
+     * @param selection transport selection mode
+     */
+    public YdbConnectionGroup(String name, YdbConnection[] members, String selection) {
+        this.name = name;
+        this.members = members.clone();
+        this.leastInFlight = SELECT_LEAST_IN_FLIGHT.equals(selection);
+        if (members.length > 1) {
+            for (int i = 0; i < members.length; ++i) {
+                members[i].setTransportLabel((i + 1) + "/" + members.length);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return members.length;
+    }
+
+    /**
+     * @return the connection to send the next request over
+     */
+    public YdbConnection select() {
+        if (members.length == 1) {
+            return members[0];
+        }
+        final int start = Math.floorMod(position.getAndIncrement(), members.length);
+        if (! leastInFlight) {
+            return members[start];
+        }
+        // Scan from the rotating position, so that the ties are spread over the transports
+        YdbConnection best = members[start];
+        for (int i = 1; i < members.length && best.getInFlight() > 0; ++i) {
+            YdbConnection c = members[(start + i) % members.length];
+            if (c.getInFlight() < best.getInFlight()) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void close() {
+        if (members.length > 1) {
+            for (int i = 0; i < members.length; ++i) {
+                LOG.info("Transport {}/{} of {}: {} requests, peak in-flight {}", i + 1, members.length,
+                        name, members[i].getRequests(), members[i].getInFlightPeak());
+            }
+        }
+        YdbKeyAllocator.remove(name);
+        for (YdbConnection c : members) {
+            c.close();
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package tech.ydb.jmeter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide registry of the YDB connections, keyed by the data source name.
+ * The connection group is opened by the first configuration element which acquires the name,
+ * shared by all thread groups, and closed when the last element releases it.
+ *
+ * @author zinal
+ */
+public class YdbConnectionRegistry {
+
+    private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(YdbConnectionRegistry.class);
+
+    // Lock-free lookups on the request path, the lock guards the reference counts only
+    private static final ConcurrentHashMap<String, Entry> ALL = new ConcurrentHashMap<>();
+    private static final Object LOCK = new Object();
+
+    private YdbConnectionRegistry() {
+    }
+
+    /**
+     * Acquire the connections for the data source, opening them if necessary.
+     * The connections are opened outside of the lock, other elements acquiring
+     * the same name wait for the opening to complete.
+     *
+     * @param name data source name
+     * @param factory opens the new connection group
+     * @return the connection group shared under the name
+     */
+    public static YdbConnectionGroup acquire(String name, Supplier<YdbConnectionGroup> factory) {
+        final Entry e;
+        final boolean opener;
+        synchronized(LOCK) {
+            Entry cur = ALL.get(name);
+            if (cur == null) {
+                cur = new Entry();
+                ALL.put(name, cur);
+                opener = true;
+            } else {
+                opener = false;
+                LOG.info("YDB data source {} is shared, {} references", name, cur.refs + 1);
+            }
+            cur.refs += 1;
+            e = cur;
+        }
+        if (opener) {
+            try {
+                e.group = factory.get();
+                e.opened.complete(e.group);
+            } catch (RuntimeException ex) {
+                synchronized(LOCK) {
+                    ALL.remove(name, e);
+                }
+                e.opened.completeExceptionally(ex);
+                throw ex;
+            }
+            return e.group;
+        }
+        try {
+            return e.opened.join();
+        } catch (CompletionException ex) {
+            throw (ex.getCause() instanceof RuntimeException) ? (RuntimeException) ex.getCause() : ex;
+        }
+    }
+
+    /**
+     * Release the connection for the data source, closing it with the last reference.
+     *
+     * @param name data source name
+     */
+    public static void release(String name) {
+        final Entry e;
+        synchronized(LOCK) {
+            e = ALL.get(name);
+            if (e == null) {
+                LOG.warn("YDB data source {} released, but not acquired", name);
+                return;
+            }
+            e.refs -= 1;
+            if (e.refs > 0) {
+                return;
+            }
+            ALL.remove(name);
+        }
+        // Close outside of the lock, so that other data sources are not blocked
+        if (e.group != null) {
+            e.group.close();
+        }
+    }
+
+    /**
+     * @param name data source name
+     * @return the connection group, or null if not acquired or still being opened
+     */
+    public static YdbConnectionGroup getGroup(String name) {
+        Entry e = ALL.get(name);
+        return (e == null) ? null : e.group;
+    }
+
+    /**
+     * @param name data source name
+     * @return the connection selected for the next request, or null if not acquired
+     */
+    public static YdbConnection get(String name) {
+        YdbConnectionGroup group = getGroup(name);
+        return (group == null) ? null : group.select();
+    }
+
+    private static final class Entry {
+        final CompletableFuture<YdbConnectionGroup> opened = new CompletableFuture<>();
+        volatile YdbConnectionGroup group;
+        // Guarded by LOCK
+        int refs;
+    }
+
+}
@@ -0,0 +1,178 @@
+package tech.ydb.jmeter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tech.ydb.core.Result;
+import tech.ydb.table.query.DataQueryResult;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.transaction.TxControl;
+import tech.ydb.table.values.PrimitiveValue;
+
+/**
+ * Allocator of the unique keys for the insert workloads, bound to the data source.
+ * The keys are handed out in blocks, each thread then takes the keys from its block without
+ * any synchronization. The blocks are reserved either in the process, or through the sequence
+ * table in the database, so that several load generators never get the same keys.
+ *
+ * The sequence table must have the following structure:
+ * <pre>
+ * CREATE TABLE jmeter_sequences (name Text, next_value Uint64, PRIMARY KEY(name));
+ * </pre>
+ *
+ * @author zinal
+ */
+public class YdbKeyAllocator {
+
+    private static final ConcurrentHashMap<String, YdbKeyAllocator> ALL = new ConcurrentHashMap<>();
+
+    // Key orderings (used in the generator specification)
+    public static final String ORDER_SEQUENTIAL = "sequential";
+    public static final String ORDER_SHUFFLED = "shuffled";
+    public static final String ORDER_BITREVERSED = "bitreversed";
+
+    private static final long MASK63 = Long.MAX_VALUE;
+    // Odd multipliers, so that the multiplication modulo 2^63 is a bijection
+    private static final long SHUFFLE_MULT1 = 0x3F58476D1CE4E5B9L;
+    private static final long SHUFFLE_MULT2 = 0x14D049BB133111EBL;
+
+    private final String dataSource;
+    private final long blockSize;
+    private final long start;
+    private final String sequenceTable;
+    // In-process block counters per key space
+    private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param dataSource data source name
+     * @param blockSize number of keys in the block
+     * @param start the first key
+     * @param sequenceTable path to the sequence table, or empty to reserve the blocks in the process
+     */
+    public YdbKeyAllocator(String dataSource, long blockSize, long start, String sequenceTable) {
+        this.dataSource = dataSource;
+        this.blockSize = Math.max(1L, blockSize);
+        this.start = Math.max(0L, start);
+        this.sequenceTable = (sequenceTable == null) ? "" : sequenceTable.trim();
+    }
+
+    /**
+     * Register the allocator for the data source, unless already registered.
+     *
+     * @param allocator the allocator
+     */
+    public static void register(YdbKeyAllocator allocator) {
+        ALL.putIfAbsent(allocator.dataSource, allocator);
+    }
+
+    /**
+     * @param dataSource data source name
+     * @return the allocator, or null if not registered
+     */
+    public static YdbKeyAllocator get(String dataSource) {
+        return ALL.get(dataSource);
+    }
+
+    /**
+     * @param dataSource data source name
+     */
+    public static void remove(String dataSource) {
+        ALL.remove(dataSource);
+    }
+
+    public long getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Reserve the next block of keys.
+     *
+     * @param space key space name, each having its own sequence
+     * @return the first key of the block
+     */
+    public long reserve(String space) {
+        if (sequenceTable.length() == 0) {
+            return counters.computeIfAbsent(space, k -> new AtomicLong(start)).getAndAdd(blockSize);
+        }
+        return reserveInTable(space);
+    }
+
+    private long reserveInTable(String space) {
+        final YdbConnection conn = YdbConfigElement.getConnection(dataSource);
+        final String table = sequenceTable.startsWith("/")
+                ? sequenceTable : conn.getDatabase() + "/" + sequenceTable;
+        final String query = "DECLARE $name AS Text; DECLARE $block AS Uint64; DECLARE $start AS Uint64;\n"
+                + "$cur = (SELECT next_value FROM `" + table + "` WHERE name = $name);\n"
+                + "UPSERT INTO `" + table + "` (name, next_value) "
+                + "VALUES ($name, COALESCE($cur, $start) + $block);\n"
+                + "SELECT COALESCE($cur, $start) AS block_start;";
+        final Params params = Params.create();
+        params.put("$name", PrimitiveValue.newText(space));
+        params.put("$block", PrimitiveValue.newUint64(blockSize));
+        params.put("$start", PrimitiveValue.newUint64(start));
+        // A retry after the lost commit response skips the block, which leaves a gap but no duplicates
+        final Result<DataQueryResult> res = conn.getTableCtx().supplyResult(session -> session.executeDataQuery(
+                query, TxControl.serializableRw().setCommitTx(true), params, new ExecuteDataQuerySettings())).join();
+        final ResultSetReader rsr = res.getValue().getResultSet(0);
+        if (! rsr.next()) {
+            throw new IllegalStateException("No block returned from the sequence table " + table);
+        }
+        return rsr.getColumn(0).getUint64();
+    }
+
+    /**
+     * Map the key according to the ordering, keeping the keys unique within the 63-bit range.
+     *
+     * @param key the sequential key
+     * @param order key ordering
+     * @return the key to use
+     */
+    public static long order(long key, String order) {
+        switch (order) {
+            case ORDER_SHUFFLED: {
+                // SplitMix64-like mixing, each step being a bijection on [0, 2^63)
+                long x = (key + 0x1E3779B97F4A7C15L) & MASK63;
+                x = ((x ^ (x >>> 30)) * SHUFFLE_MULT1) & MASK63;
+                x = ((x ^ (x >>> 27)) * SHUFFLE_MULT2) & MASK63;
+                return x ^ (x >>> 31);
+            }
+            case ORDER_BITREVERSED:
+                return Long.reverse(key & MASK63) >>> 1;
+            default:
+                return key;
+        }
+    }
+
+    /**
+     * Keys of a single thread, taken from the reserved blocks.
+     * Instances are not thread safe.
+     */
+    public static final class Range {
+        private final String dataSource;
+        private final String space;
+        private final String order;
+        private long next;
+        private long end;
+
+        public Range(String dataSource, String space, String order) {
+            this.dataSource = dataSource;
+            this.space = space;
+            this.order = order;
+        }
+
+        public long nextKey() {
+            if (next >= end) {
+                YdbKeyAllocator allocator = YdbKeyAllocator.get(dataSource);
+                if (allocator == null) {
+                    throw new IllegalStateException("No key allocator for data source " + dataSource);
+                }
+                next = allocator.reserve(space);
+                end = next + allocator.getBlockSize();
+            }
+            return order(next++, order);
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package tech.ydb.jmeter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * High dynamic range latency histogram, collected per test element across all threads.
+ * Recorders are keyed by the element identity, and the elements with the same name
+ * get the distinct output files.
+ * Values are recorded in microseconds with the wait-free {@link Recorder},
+ * optionally correcting the coordinated omission against the expected interval between requests.
+ *
+ * @author zinal
+ */
+public class YdbLatencyRecorder {
+
+    private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(YdbLatencyRecorder.class);
+
+    private static final ConcurrentHashMap<String, YdbLatencyRecorder> ALL = new ConcurrentHashMap<>();
+    // Output file base names of the active recorders
+    private static final Set<String> FILE_NAMES = ConcurrentHashMap.newKeySet();
+    private static final int SIGNIFICANT_DIGITS = 3;
+    // Percentile output in milliseconds
+    private static final double OUTPUT_SCALE = 1000.0;
+
+    private final String name;
+    private final String fileName;
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final long expectedIntervalMicros;
+
+    private YdbLatencyRecorder(String name, long expectedIntervalMicros) {
+        this.name = name;
+        this.fileName = claimFileName(name);
+        this.expectedIntervalMicros = expectedIntervalMicros;
+    }
+
+    /**
+     * @param id test element identity
+     * @param name test element name
+     * @param expectedIntervalMicros expected interval between the requests of a thread,
+     *   0 to disable the coordinated omission correction
+     * @return recorder for the test element, created if missing
+     */
+    public static YdbLatencyRecorder forName(String id, String name, long expectedIntervalMicros) {
+        return ALL.computeIfAbsent(id, k -> new YdbLatencyRecorder(name, expectedIntervalMicros));
+    }
+
+    /**
+     * @param id test element identity
+     * @return recorder for the test element, or null if nothing was recorded
+     */
+    public static YdbLatencyRecorder remove(String id) {
+        final YdbLatencyRecorder r = ALL.remove(id);
+        if (r != null) {
+            FILE_NAMES.remove(r.fileName);
+        }
+        return r;
+    }
+
+    /**
+     * The file name is made of the element name, with the number appended
+     * when another active recorder already uses the same one.
+     */
+    private static String claimFileName(String name) {
+        final String base = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        String candidate = base;
+        for (int n = 2; !FILE_NAMES.add(candidate); ++n) {
+            candidate = base + "-" + n;
+        }
+        if (! candidate.equals(base)) {
+            LOG.warn("Several test elements are named [{}], the latency histogram file of one of them is {}",
+                    name, candidate);
+        }
+        return candidate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record the latency of the request started at the specified time.
+     *
+     * @param startNanos request start, as returned by {@link System#nanoTime()}
+     */
+    public void record(long startNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        if (expectedIntervalMicros > 0L) {
+            recorder.recordValueWithExpectedInterval(micros, expectedIntervalMicros);
+        } else {
+            recorder.recordValue(micros);
+        }
+    }
+
+    /**
+     * Write the percentile distribution in the .hgrm format, with the values in milliseconds.
+     * The histogram is reset.
+     *
+     * @param fileName output file name
+     * @return the histogram written
+     * @throws IOException on write failure
+     */
+    public Histogram write(String fileName) throws IOException {
+        final Histogram h = recorder.getIntervalHistogram();
+        final File f = new File(fileName);
+        if (f.getParentFile() != null) {
+            f.getParentFile().mkdirs();
+        }
+        try (PrintStream ps = new PrintStream(new FileOutputStream(f), false,
+                AbstractYdbTestElement.CHARSET.name())) {
+            h.outputPercentileDistribution(ps, OUTPUT_SCALE);
+        }
+        LOG.info("Latency histogram for [{}] written to {}: {}", name, fileName, summary(h));
+        return h;
+    }
+
+    /**
+     * @param h histogram in microseconds
+     * @return the short summary of the main percentiles
+     */
+    public static String summary(Histogram h) {
+        return String.format("count: %d, mean: %.3f ms, p50: %.3f ms, p99: %.3f ms, p99.9: %.3f ms, max: %.3f ms",
+                h.getTotalCount(), h.getMean() / OUTPUT_SCALE,
+                h.getValueAtPercentile(50.0) / OUTPUT_SCALE,
+                h.getValueAtPercentile(99.0) / OUTPUT_SCALE,
+                h.getValueAtPercentile(99.9) / OUTPUT_SCALE,
+                h.getMaxValue() / OUTPUT_SCALE);
+    }
+
+    /**
+     * Build the output file name from the prefix and the test element name,
+     * unique among the recorders active at the same time.
+     *
+     * @param prefix output file prefix, like directory path with the separator at the end
+     * @return file name
+     */
+    public String makeFileName(String prefix) {
+        return prefix + fileName + ".hgrm";
+    }
+
+}
@@ -0,0 +1,290 @@
+package tech.ydb.jmeter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.jmeter.samplers.SampleResult;
+
+import tech.ydb.core.Status;
+import tech.ydb.core.grpc.GrpcReadStream;
+import tech.ydb.table.description.KeyBound;
+import tech.ydb.table.description.KeyRange;
+import tech.ydb.table.description.TableColumn;
+import tech.ydb.table.description.TableDescription;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.settings.DescribeTableSettings;
+import tech.ydb.table.settings.ExecuteScanQuerySettings;
+import tech.ydb.table.values.OptionalType;
+import tech.ydb.table.values.OptionalValue;
+import tech.ydb.table.values.TupleValue;
+import tech.ydb.table.values.Value;
+
+/**
+ * Scan query split into several concurrent streams over the primary key ranges of the table.
+ *
+ * The partition boundaries are obtained with describeTable, and the partitions are grouped
+ * into the contiguous key ranges, one range per stream. The range of each stream is passed
+ * to the query as the optional values of the first primary key column in the
+ * {@code $scan_from} (inclusive) and {@code $scan_to} (exclusive) parameters,
+ * which are empty for the open ends.
+ *
+ * The rows are only rendered and grabbed into the variables for the first stream,
+ * which covers the beginning of the key range, see {@link RowListener}.
+ *
+ * @author zinal
+ */
+public class YdbParallelScan {
+
+    public static final String PARAM_FROM = "$scan_from";
+    public static final String PARAM_TO = "$scan_to";
+
+    private final String name;
+    private final YdbConnection conn;
+    private final String tablePath;
+    private final int parallelism;
+    private final List<Stream> streams = new ArrayList<>();
+
+    /**
+     * Receiver of the rows of the first stream, called from the stream's callbacks.
+     */
+    public interface RowListener {
+        /**
+         * Called before each attempt of the first stream, to discard the rows of the failed one.
+         */
+        void onAttempt();
+
+        /**
+         * @param rsr next part of the rows of the first stream
+         */
+        void onRows(ResultSetReader rsr);
+    }
+
+    public YdbParallelScan(String name, YdbConnection conn, String tablePath, int parallelism) {
+        this.name = name;
+        this.conn = conn;
+        this.tablePath = tablePath;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Run the streams and wait for all of them to complete.
+     * Each stream is reported as the sub-result of the sample.
+     *
+     * @param query scan query text
+     * @param params query parameters, without the range parameters
+     * @param settings scan query settings
+     * @param checksum true to compute the checksum of the rows
+     * @param listener receiver of the rows of the first stream, or null
+     * @param sample the sample to report the latency and the sub-results
+     * @return this object, completed when all streams are finished
+     */
+    public CompletableFuture<YdbParallelScan> execute(String query, Params params,
+            ExecuteScanQuerySettings settings, boolean checksum, RowListener listener,
+            SampleResult sample) {
+        final DescribeTableSettings dts = new DescribeTableSettings();
+        dts.setIncludeShardKeyBounds(true);
+        return conn.getTableCtx().supplyResult(session -> session.describeTable(tablePath, dts))
+                .thenCompose(res -> {
+            final TableDescription td = res.getValue();
+            final OptionalType keyType = findFirstKeyType(td);
+            final List<KeyRange> ranges = td.getKeyRanges();
+            final int count = Math.max(1, Math.min(parallelism, ranges.size()));
+            final AtomicBoolean latencyEnd = new AtomicBoolean(true);
+            final List<CompletableFuture<Status>> futures = new ArrayList<>();
+            for (int i = 0; i < count; ++i) {
+                final Value<?> from = (i == 0) ? keyType.emptyValue()
+                        : boundValue(ranges.get(i * ranges.size() / count).getFrom(), keyType);
+                final Value<?> to = (i == count - 1) ? keyType.emptyValue()
+                        : boundValue(ranges.get((i + 1) * ranges.size() / count - 1).getTo(), keyType);
+                final Params p = Params.create();
+                for (java.util.Map.Entry<String, Value<?>> me : params.values().entrySet()) {
+                    putParam(p, me.getKey(), me.getValue());
+                }
+                putParam(p, PARAM_FROM, from);
+                putParam(p, PARAM_TO, to);
+                final Stream s = new Stream(i, checksum, (i == 0) ? listener : null);
+                streams.add(s);
+                futures.add(s.run(query, p, settings, sample, latencyEnd));
+            }
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .handle((v, ex) -> {
+                for (Stream s : streams) {
+                    // Raw, as the parent sample has not ended yet and its end time must stay unset
+                    sample.addRawSubResult(s.makeSubResult());
+                }
+                for (CompletableFuture<Status> f : futures) {
+                    f.join().expectSuccess("scan stream failed");
+                }
+                return this;
+            });
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void putParam(Params p, String name, Value<?> value) {
+        p.put(name, (Value) value);
+    }
+
+    private static OptionalType findFirstKeyType(TableDescription td) {
+        final String keyName = td.getPrimaryKeys().get(0);
+        for (TableColumn tc : td.getColumns()) {
+            if (keyName.equals(tc.getName())) {
+                return tc.getType().unwrapOptional().makeOptional();
+            }
+        }
+        throw new IllegalStateException("Primary key column " + keyName + " not found");
+    }
+
+    private static Value<?> boundValue(Optional<KeyBound> bound, OptionalType keyType) {
+        if (! bound.isPresent()) {
+            return keyType.emptyValue();
+        }
+        Value<?> v = bound.get().getValue();
+        if (v instanceof TupleValue) {
+            v = ((TupleValue) v).get(0);
+        }
+        if (v instanceof OptionalValue) {
+            OptionalValue ov = (OptionalValue) v;
+            if (! ov.isPresent()) {
+                return keyType.emptyValue();
+            }
+            v = ov.get();
+        }
+        return keyType.newValue(v);
+    }
+
+    /**
+     * @return total number of rows in all streams
+     */
+    public long getTotalRows() {
+        long total = 0L;
+        for (Stream s : streams) {
+            total += s.rows;
+        }
+        return total;
+    }
+
+    /**
+     * @return the combined checksum of all streams, or null if not computed
+     */
+    public YdbResultChecksum getChecksum() {
+        YdbResultChecksum ret = null;
+        for (Stream s : streams) {
+            if (s.checksum != null) {
+                if (ret == null) {
+                    ret = new YdbResultChecksum();
+                }
+                ret.merge(s.checksum);
+            }
+        }
+        return ret;
+    }
+
+    public int getRetryCount() {
+        int total = 0;
+        for (Stream s : streams) {
+            total += s.handler.getRetryCount();
+        }
+        return total;
+    }
+
+    /**
+     * @return the text report on the streams
+     */
+    public String makeReport() {
+        final StringBuilder sb = new StringBuilder();
+        for (Stream s : streams) {
+            s.appendReport(sb);
+        }
+        sb.append("** Total rows: ").append(getTotalRows());
+        return sb.toString();
+    }
+
+    private final class Stream {
+        final int index;
+        final YdbRetryHandler handler;
+        final YdbResultChecksum checksum;
+        final RowListener listener;
+        long startMillis;
+        long endMillis;
+        long rows;
+        Status status;
+
+        Stream(int index, boolean withChecksum, RowListener listener) {
+            this.index = index;
+            this.handler = new YdbRetryHandler(name + " #" + (index + 1), name);
+            this.checksum = withChecksum ? new YdbResultChecksum() : null;
+            this.listener = listener;
+        }
+
+        CompletableFuture<Status> run(String query, Params params, ExecuteScanQuerySettings settings,
+                SampleResult sample, AtomicBoolean latencyEnd) {
+            startMillis = System.currentTimeMillis();
+            return conn.getTableCtx().supplyStatus(handler, session -> {
+                // Restart the counters on each retry attempt
+                rows = 0L;
+                if (checksum != null) {
+                    checksum.reset();
+                }
+                if (listener != null) {
+                    listener.onAttempt();
+                }
+                GrpcReadStream<ResultSetReader> scan = session.executeScanQuery(query, params, settings);
+                return scan.start(rsr -> {
+                    if (latencyEnd.compareAndSet(true, false)) {
+                        sample.latencyEnd();
+                    }
+                    if (checksum != null) {
+                        checksum.addRows(rsr, 0L);
+                    }
+                    if (listener != null) {
+                        listener.onRows(rsr);
+                    }
+                    rows += rsr.getRowCount();
+                });
+            }).whenComplete((st, ex) -> {
+                endMillis = System.currentTimeMillis();
+                status = st;
+            });
+        }
+
+        long getRowsPerSecond() {
+            long elapsed = Math.max(1L, endMillis - startMillis);
+            return rows * 1000L / elapsed;
+        }
+
+        void appendReport(StringBuilder sb) {
+            sb.append("** Stream #").append(index + 1).append(": ")
+                    .append(rows).append(" row(s), ")
+                    .append(getRowsPerSecond()).append(" rows/s\n");
+        }
+
+        SampleResult makeSubResult() {
+            final SampleResult sr = new SampleResult();
+            sr.setSampleLabel(name + " #" + (index + 1));
+            sr.setStampAndTime(startMillis, endMillis - startMillis);
+            sr.setDataType(SampleResult.TEXT);
+            sr.setContentType("text/plain");
+            sr.setDataEncoding(AbstractYdbTestElement.CHARSET.name());
+            final StringBuilder sb = new StringBuilder();
+            appendReport(sb);
+            sr.setResponseData(sb.toString().getBytes(AbstractYdbTestElement.CHARSET));
+            sr.setResponseHeaders(handler.formatTrace());
+            if (status != null && status.isSuccess()) {
+                sr.setSuccessful(true);
+                sr.setResponseCodeOK();
+                sr.setResponseMessageOK();
+            } else {
+                sr.setSuccessful(false);
+                sr.setResponseCode(status != null ? status.getCode().name() : "000");
+                sr.setResponseMessage(String.valueOf(status));
+            }
+            return sr;
+        }
+    }
+
+}
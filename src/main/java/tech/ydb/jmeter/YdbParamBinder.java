@@ -0,0 +1,209 @@
+package tech.ydb.jmeter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.jmeter.save.CSVSaveService;
+
+import tech.ydb.table.query.Params;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.Value;
+
+/**
+ * Query parameters binder, compiled once for the list of parameter types.
+ * Parameter values are converted only when their text changes between the calls,
+ * so the values which do not depend on JMeter variables are converted once.
+ * The values specified as generators (see {@link YdbValueGen}) are produced on every call.
+ *
+ * Instances are not thread safe, each test element clone owns its binder.
+ *
+ * @author zinal
+ */
+public class YdbParamBinder {
+
+    private static final char COMMA_CHAR = ',';
+    // Unquoted generator specification as the whole value, to be quoted before splitting
+    private static final Pattern GEN_FIELD = Pattern.compile("(^|,)\\s*(@[A-Za-z]+\\([^()\"]*\\))\\s*(?=,|$)");
+
+    private final String argumentsTypes;
+    private final String[] names;
+    private final String[] memberNames;
+    private final YdbValueConv.TypedConv[] convs;
+
+    // The values of the last call, to be reused for the unchanged arguments
+    private String lastArguments;
+    private String[] lastValues;
+    private final Value<?>[] lastBound;
+    private final YdbValueGen[] gens;
+    // Row number for the @row() generators, advanced on every call
+    private long rowNumber;
+
+    private YdbParamBinder(String argumentsTypes, String[] names, YdbValueConv.TypedConv[] convs) {
+        this.argumentsTypes = argumentsTypes;
+        this.names = names;
+        this.memberNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            this.memberNames[i] = names[i].substring(1).intern();
+        }
+        this.convs = convs;
+        this.lastBound = new Value<?>[convs.length];
+        this.gens = new YdbValueGen[convs.length];
+    }
+
+    /**
+     * Compile the binder for the comma-separated list of parameter types.
+     *
+     * @param argumentsTypes Comma-separated YDB type names
+     * @return New binder instance
+     */
+    public static YdbParamBinder compile(String argumentsTypes) {
+        if (argumentsTypes == null || argumentsTypes.trim().length() == 0) {
+            return new YdbParamBinder(argumentsTypes, new String[0], new YdbValueConv.TypedConv[0]);
+        }
+        String[] types = argumentsTypes.split(",");
+        String[] names = new String[types.length];
+        YdbValueConv.TypedConv[] convs = new YdbValueConv.TypedConv[types.length];
+        for (int i = 0; i < types.length; i++) {
+            names[i] = ("$p" + Integer.toString(i+1)).intern();
+            convs[i] = YdbValueConv.lookup(types[i].trim());
+        }
+        return new YdbParamBinder(argumentsTypes, names, convs);
+    }
+
+    /**
+     * @param argumentsTypes Comma-separated YDB type names
+     * @return true, if the binder has been compiled for the specified types
+     */
+    public boolean isCompiledFor(String argumentsTypes) {
+        if (this.argumentsTypes == null) {
+            return argumentsTypes == null;
+        }
+        return this.argumentsTypes.equals(argumentsTypes);
+    }
+
+    /**
+     * @return Number of parameters
+     */
+    public int getCount() {
+        return convs.length;
+    }
+
+    /**
+     * @param index Parameter index, zero-based
+     * @return Parameter name, like $p1
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Set the row number used by the {@code @row()} generators on the next call.
+     *
+     * @param rowNumber Row number, zero-based
+     */
+    public void setRowNumber(long rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+
+    /**
+     * Convert the comma-separated argument values to YDB values.
+     *
+     * @param arguments Comma-separated argument values
+     * @return YDB values, one per parameter, owned by the binder
+     */
+    public Value<?>[] convert(String arguments) {
+        if (arguments.equals(lastArguments)) {
+            generate();
+            return lastBound;
+        }
+        String[] values;
+        try {
+            values = CSVSaveService.csvSplitString(quoteGenerators(arguments), COMMA_CHAR);
+        } catch(IOException ix) {
+            throw new RuntimeException("Failed to parse arguments", ix);
+        }
+        if (values.length != convs.length) {
+            throw new RuntimeException("number of arguments ("
+                    + values.length + ") and number of types ("
+                    + convs.length + ") are not equal");
+        }
+        final String[] prev = lastValues;
+        // Drop the cached state while converting, to stay consistent on errors
+        lastArguments = null;
+        lastValues = null;
+        for (int i = 0; i < values.length; i++) {
+            if (prev == null || !values[i].equals(prev[i])) {
+                if (YdbValueGen.isSpec(values[i])) {
+                    gens[i] = YdbValueGen.parse(values[i]);
+                    gens[i].checkRange(convs[i]);
+                } else {
+                    gens[i] = null;
+                    lastBound[i] = convs[i].convert(values[i]);
+                }
+            }
+        }
+        generate();
+        lastValues = values;
+        lastArguments = arguments;
+        return lastBound;
+    }
+
+    private void generate() {
+        for (int i = 0; i < gens.length; i++) {
+            if (gens[i] instanceof YdbValueGen.RowNumber) {
+                ((YdbValueGen.RowNumber) gens[i]).row = rowNumber;
+            }
+            if (gens[i] != null) {
+                lastBound[i] = gens[i].next(convs[i]);
+            }
+        }
+        rowNumber += 1;
+    }
+
+    /**
+     * The generator arguments are separated by commas, so the generators have to be quoted for the CSV split.
+     */
+    private static String quoteGenerators(String arguments) {
+        if (arguments.indexOf('@') < 0) {
+            return arguments;
+        }
+        return GEN_FIELD.matcher(arguments).replaceAll("$1\"$2\"");
+    }
+
+    /**
+     * Build the query parameters from the comma-separated argument values.
+     *
+     * @param arguments Comma-separated argument values
+     * @return Query parameters
+     */
+    public Params bind(String arguments) {
+        if (convs.length == 0 || arguments.trim().length() == 0) {
+            return Params.create();
+        }
+        final Value<?>[] values = convert(arguments);
+        Params params = Params.create(values.length);
+        for (int i = 0; i < values.length; i++) {
+            params.put(names[i], values[i]);
+        }
+        return params;
+    }
+
+    /**
+     * Build the structure from the comma-separated argument values,
+     * with the members named as parameters without the dollar sign (p1, p2, etc.).
+     *
+     * @param arguments Comma-separated argument values
+     * @return Structure value
+     */
+    public StructValue bindStruct(String arguments) {
+        final Value<?>[] values = convert(arguments);
+        final Map<String, Value<?>> members = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            members.put(memberNames[i], values[i]);
+        }
+        return StructValue.of(members);
+    }
+
+}
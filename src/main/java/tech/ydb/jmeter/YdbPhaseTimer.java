@@ -0,0 +1,124 @@
+package tech.ydb.jmeter;
+
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Timing of the request phases: waiting for the pooled session,
+ * retries (failed attempts, backoff and the session re-acquisition), the RPC of the final attempt,
+ * and the client-side processing of the results.
+ *
+ * The phase marks are set from the SDK callbacks, one request at a time.
+ *
+ * @author zinal
+ */
+public class YdbPhaseTimer {
+
+    private final long startMillis = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private volatile long firstAttemptNanos;
+    private volatile long lastAttemptNanos;
+    private volatile long resultNanos;
+    private volatile long endNanos;
+    private volatile long processingNanos;
+
+    /**
+     * Mark the start of the attempt, which happens after the session is obtained.
+     * The first attempt also ends the connect phase of the sample.
+     *
+     * @param sample sample to report the connect time
+     */
+    public void onAttempt(SampleResult sample) {
+        final long now = System.nanoTime();
+        if (firstAttemptNanos == 0L) {
+            firstAttemptNanos = now;
+            sample.connectEnd();
+        }
+        lastAttemptNanos = now;
+        processingNanos = 0L;
+    }
+
+    /**
+     * Add the time spent processing the results within the streaming callbacks.
+     *
+     * @param nanos processing time
+     */
+    public void addProcessing(long nanos) {
+        processingNanos += nanos;
+    }
+
+    /**
+     * Mark the completion of the server call.
+     */
+    public void onResult() {
+        resultNanos = System.nanoTime();
+    }
+
+    /**
+     * Mark the end of the results processing.
+     */
+    public void onEnd() {
+        endNanos = System.nanoTime();
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1000000L;
+    }
+
+    private long attemptNanos() {
+        return (firstAttemptNanos == 0L) ? resultNanos : firstAttemptNanos;
+    }
+
+    public long getSessionWaitMillis() {
+        return millis(attemptNanos() - startNanos);
+    }
+
+    public long getRetryMillis() {
+        return millis(lastAttemptNanos - attemptNanos());
+    }
+
+    public long getRpcMillis() {
+        long last = (lastAttemptNanos == 0L) ? resultNanos : lastAttemptNanos;
+        return millis(Math.max(0L, resultNanos - last - processingNanos));
+    }
+
+    public long getProcessingMillis() {
+        return millis(processingNanos + Math.max(0L, endNanos - resultNanos));
+    }
+
+    /**
+     * @return the phase timing as the response header line
+     */
+    public String formatHeaders() {
+        return "YDB-Timing: session " + getSessionWaitMillis() + " ms"
+                + ", retries " + getRetryMillis() + " ms"
+                + ", rpc " + getRpcMillis() + " ms"
+                + ", processing " + getProcessingMillis() + " ms\n";
+    }
+
+    /**
+     * Add the phases as the sub-results of the sample.
+     *
+     * @param sample parent sample
+     * @param name sample label
+     */
+    public void addSubResults(SampleResult sample, String name) {
+        long offset = 0L;
+        offset = addSubResult(sample, name + " session", offset, getSessionWaitMillis());
+        offset = addSubResult(sample, name + " retries", offset, getRetryMillis());
+        offset = addSubResult(sample, name + " rpc", offset, getRpcMillis());
+        addSubResult(sample, name + " processing", offset, getProcessingMillis());
+    }
+
+    private long addSubResult(SampleResult sample, String label, long offset, long elapsed) {
+        final SampleResult sr = new SampleResult();
+        sr.setSampleLabel(label);
+        sr.setStampAndTime(startMillis + offset, elapsed);
+        sr.setSuccessful(true);
+        sr.setResponseCodeOK();
+        sr.setResponseMessageOK();
+        // Raw, as the parent sample has not ended yet and its end time must stay unset
+        sample.addRawSubResult(sr);
+        return offset + elapsed;
+    }
+
+}
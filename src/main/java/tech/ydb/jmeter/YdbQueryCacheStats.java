@@ -0,0 +1,110 @@
+package tech.ydb.jmeter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import tech.ydb.table.query.stats.CompilationStats;
+import tech.ydb.table.query.stats.QueryStats;
+
+/**
+ * Query cache statistics, collected per test element name across all threads.
+ *
+ * @author zinal
+ */
+public class YdbQueryCacheStats {
+
+    private static final ConcurrentHashMap<String, YdbQueryCacheStats> ALL = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final LongAdder prepares = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder compilations = new LongAdder();
+    private final LongAdder compileMicros = new LongAdder();
+
+    private YdbQueryCacheStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param name test element name
+     * @return statistics for the test element, created if missing
+     */
+    public static YdbQueryCacheStats forName(String name) {
+        return ALL.computeIfAbsent(name, YdbQueryCacheStats::new);
+    }
+
+    /**
+     * @param name test element name
+     * @return statistics for the test element, or null if none were collected
+     */
+    public static YdbQueryCacheStats remove(String name) {
+        return ALL.remove(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Register the explicit prepare call.
+     */
+    public void onPrepare() {
+        prepares.increment();
+    }
+
+    /**
+     * Register the compilation statistics returned by the server.
+     *
+     * @param stats query statistics, may be null
+     */
+    public void onQueryStats(QueryStats stats) {
+        if (stats == null) {
+            return;
+        }
+        CompilationStats cs = stats.getCompilation();
+        if (cs == null) {
+            return;
+        }
+        if (cs.getFromCache()) {
+            cacheHits.increment();
+        } else {
+            compilations.increment();
+            compileMicros.add(cs.getDurationUs());
+        }
+    }
+
+    public long getPrepares() {
+        return prepares.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCompilations() {
+        return compilations.sum();
+    }
+
+    public long getCompileMicros() {
+        return compileMicros.sum();
+    }
+
+    @Override
+    public String toString() {
+        final long hits = getCacheHits();
+        final long comps = getCompilations();
+        final long total = hits + comps;
+        StringBuilder sb = new StringBuilder(100);
+        sb.append("cache hits: ").append(hits)
+                .append(", compilations: ").append(comps)
+                .append(", prepares: ").append(getPrepares());
+        if (total > 0) {
+            sb.append(", hit ratio: ").append(String.format("%.2f%%", 100.0 * hits / total));
+        }
+        if (comps > 0) {
+            sb.append(", avg compile time: ").append(getCompileMicros() / comps).append(" us");
+        }
+        return sb.toString();
+    }
+
+}
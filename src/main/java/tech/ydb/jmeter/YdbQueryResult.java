@@ -2,6 +2,8 @@ package tech.ydb.jmeter;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  *
@@ -13,10 +15,31 @@ public class YdbQueryResult {
 
     private final byte[] data;
     private final int retryCount;
+    private final Map<String, String> variables;
+    private final String headers;
 
     public YdbQueryResult(byte[] data, int retryCount) {
+        this(data, retryCount, Collections.emptyMap());
+    }
+
+    public YdbQueryResult(byte[] data, int retryCount, Map<String, String> variables) {
+        this(data, retryCount, variables, "");
+    }
+
+    public YdbQueryResult(byte[] data, YdbRetryHandler handler, Map<String, String> variables) {
+        this(data, handler.getRetryCount(), variables, handler.formatTrace());
+    }
+
+    public YdbQueryResult(byte[] data, YdbRetryHandler handler, Map<String, String> variables,
+            String extraHeaders) {
+        this(data, handler.getRetryCount(), variables, handler.formatTrace() + extraHeaders);
+    }
+
+    public YdbQueryResult(byte[] data, int retryCount, Map<String, String> variables, String headers) {
         this.data = data;
         this.retryCount = retryCount;
+        this.variables = variables;
+        this.headers = headers;
     }
 
     public byte[] getData() {
@@ -27,6 +50,20 @@ public class YdbQueryResult {
         return retryCount;
     }
 
+    /**
+     * @return output variable values grabbed from the query results
+     */
+    public Map<String, String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * @return the response header lines with the retry trace and query statistics, may be empty
+     */
+    public String getHeaders() {
+        return headers;
+    }
+
     public URL makeURL() {
         try {
             return new URL("http://ydb-query/info?retryCount=" + String.valueOf(retryCount));
@@ -0,0 +1,145 @@
+package tech.ydb.jmeter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import tech.ydb.table.query.stats.CompilationStats;
+import tech.ydb.table.query.stats.OperationStats;
+import tech.ydb.table.query.stats.QueryPhaseStats;
+import tech.ydb.table.query.stats.QueryStats;
+import tech.ydb.table.query.stats.TableAccessStats;
+
+/**
+ * Key numbers of the server-side execution statistics of a single query.
+ *
+ * @author zinal
+ */
+public class YdbQueryStats {
+
+    // Names of the output variables, which can be saved with the "sample_variables" property
+    public static final String VAR_DURATION = "ydb_server_us";
+    public static final String VAR_CPU = "ydb_cpu_us";
+    public static final String VAR_COMPILE = "ydb_compile_us";
+    public static final String VAR_ROWS_READ = "ydb_rows_read";
+    public static final String VAR_BYTES_READ = "ydb_bytes_read";
+    public static final String VAR_ROWS_WRITTEN = "ydb_rows_written";
+    public static final String VAR_BYTES_WRITTEN = "ydb_bytes_written";
+
+    private long durationUs;
+    private long cpuUs;
+    private long compileUs;
+    private long rowsRead;
+    private long bytesRead;
+    private long rowsWritten;
+    private long bytesWritten;
+    // Per-table reads and writes: rows read, bytes read, rows written, bytes written
+    private final Map<String, long[]> tables = new LinkedHashMap<>();
+
+    private YdbQueryStats() {
+    }
+
+    /**
+     * @param qs statistics returned by the server
+     * @return the summary of the statistics
+     */
+    public static YdbQueryStats of(QueryStats qs) {
+        final YdbQueryStats ret = new YdbQueryStats();
+        ret.durationUs = qs.getTotalDurationUs();
+        ret.cpuUs = qs.getTotalCpuTimeUs();
+        CompilationStats cs = qs.getCompilation();
+        if (cs != null) {
+            ret.compileUs = cs.getDurationUs();
+        }
+        for (QueryPhaseStats phase : qs.getQueryPhasesList()) {
+            for (TableAccessStats tas : phase.getTableAccessList()) {
+                long[] t = ret.tables.computeIfAbsent(tas.getName(), k -> new long[4]);
+                add(t, 0, tas.getReads());
+                add(t, 2, tas.getUpdates());
+                add(t, 2, tas.getDeletes());
+            }
+        }
+        for (long[] t : ret.tables.values()) {
+            ret.rowsRead += t[0];
+            ret.bytesRead += t[1];
+            ret.rowsWritten += t[2];
+            ret.bytesWritten += t[3];
+        }
+        return ret;
+    }
+
+    /**
+     * @param qs statistics returned by the Query Service
+     * @return the summary of the statistics
+     */
+    public static YdbQueryStats of(tech.ydb.query.result.QueryStats qs) {
+        return of(new QueryStats(qs.toProtobuf()));
+    }
+
+    private static void add(long[] t, int pos, OperationStats os) {
+        if (os != null) {
+            t[pos] += os.getRows();
+            t[pos + 1] += os.getBytes();
+        }
+    }
+
+    public long getDurationUs() {
+        return durationUs;
+    }
+
+    public long getCpuUs() {
+        return cpuUs;
+    }
+
+    public long getCompileUs() {
+        return compileUs;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Put the key numbers into the output variables.
+     *
+     * @param vars output variables
+     */
+    public void putVariables(Map<String, String> vars) {
+        vars.put(VAR_DURATION, Long.toString(durationUs));
+        vars.put(VAR_CPU, Long.toString(cpuUs));
+        vars.put(VAR_COMPILE, Long.toString(compileUs));
+        vars.put(VAR_ROWS_READ, Long.toString(rowsRead));
+        vars.put(VAR_BYTES_READ, Long.toString(bytesRead));
+        vars.put(VAR_ROWS_WRITTEN, Long.toString(rowsWritten));
+        vars.put(VAR_BYTES_WRITTEN, Long.toString(bytesWritten));
+    }
+
+    /**
+     * @return the statistics as the response header lines
+     */
+    public String formatHeaders() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("YDB-Stats: server ").append(durationUs).append(" us")
+                .append(", cpu ").append(cpuUs).append(" us")
+                .append(", compile ").append(compileUs).append(" us\n");
+        for (Map.Entry<String, long[]> me : tables.entrySet()) {
+            long[] t = me.getValue();
+            sb.append("YDB-Table-Stats: ").append(me.getKey())
+                    .append(", read ").append(t[0]).append(" rows / ").append(t[1]).append(" bytes")
+                    .append(", written ").append(t[2]).append(" rows / ").append(t[3]).append(" bytes\n");
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,79 @@
+package tech.ydb.jmeter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-side query statistics, summed up per test element name across all threads.
+ *
+ * @author zinal
+ */
+public class YdbQueryStatsTotals {
+
+    private static final ConcurrentHashMap<String, YdbQueryStatsTotals> ALL = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder durationUs = new LongAdder();
+    private final LongAdder cpuUs = new LongAdder();
+    private final LongAdder compileUs = new LongAdder();
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    private YdbQueryStatsTotals(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param name test element name
+     * @return statistics for the test element, created if missing
+     */
+    public static YdbQueryStatsTotals forName(String name) {
+        return ALL.computeIfAbsent(name, YdbQueryStatsTotals::new);
+    }
+
+    /**
+     * @param name test element name
+     * @return statistics for the test element, or null if none were collected
+     */
+    public static YdbQueryStatsTotals remove(String name) {
+        return ALL.remove(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void add(YdbQueryStats stats) {
+        queries.increment();
+        durationUs.add(stats.getDurationUs());
+        cpuUs.add(stats.getCpuUs());
+        compileUs.add(stats.getCompileUs());
+        rowsRead.add(stats.getRowsRead());
+        bytesRead.add(stats.getBytesRead());
+        rowsWritten.add(stats.getRowsWritten());
+        bytesWritten.add(stats.getBytesWritten());
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    @Override
+    public String toString() {
+        final long n = Math.max(1L, getQueries());
+        StringBuilder sb = new StringBuilder(200);
+        sb.append("queries: ").append(getQueries())
+                .append(", avg server time: ").append(durationUs.sum() / n).append(" us")
+                .append(", avg cpu time: ").append(cpuUs.sum() / n).append(" us")
+                .append(", avg compile time: ").append(compileUs.sum() / n).append(" us")
+                .append(", rows read: ").append(rowsRead.sum())
+                .append(", bytes read: ").append(bytesRead.sum())
+                .append(", rows written: ").append(rowsWritten.sum())
+                .append(", bytes written: ").append(bytesWritten.sum());
+        return sb.toString();
+    }
+
+}
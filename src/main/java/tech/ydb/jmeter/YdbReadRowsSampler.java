@@ -0,0 +1,279 @@
+package tech.ydb.jmeter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import org.apache.jmeter.gui.TestElementMetadata;
+import org.apache.jmeter.samplers.Entry;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.samplers.Sampler;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+
+import tech.ydb.table.query.ReadRowsResult;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.settings.ReadRowsSettings;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.Value;
+
+/**
+ * A sampler which reads the rows by their primary keys with the ReadRows API,
+ * bypassing the query compilation and transaction control.
+ *
+ * Each call reads the batch of keys, one key per line, with the key column values
+ * separated by commas in the same format as the query parameters.
+ * The sample reports the number of keys as its sample count,
+ * along with the rows returned and the average latency per key in the response data.
+ *
+ * @author zinal
+ */
+@TestElementMetadata(labelResource = "displayName")
+public class YdbReadRowsSampler extends AbstractTestElement
+        implements Sampler, TestBean, TestStateListener {
+
+    private static final long serialVersionUID = 1L;
+
+    protected static final java.nio.charset.Charset CHARSET = AbstractYdbTestElement.CHARSET;
+
+    private String dataSource = "";
+    private String tablePath = "";
+    private String keyColumns = "";
+    private String keyTypes = "";
+    private String keyValues = "";
+    private String columnNames = "";
+    private String queryTimeout = "";
+    private boolean storeRows = true;
+
+    // Per-thread state
+    private transient YdbParamBinder binder;
+    private transient String[] keyNames;
+
+    public YdbReadRowsSampler() {
+    }
+
+    @Override
+    public SampleResult sample(Entry e) {
+        final SampleResult res = newSampleResult();
+        res.sampleStart();
+        try {
+            YdbConnection conn;
+            try {
+                conn = getConnection();
+            } finally {
+                res.connectEnd();
+            }
+            final List<StructValue> keys = makeKeys();
+            final String path = makeTablePath(conn);
+            final ReadRowsSettings settings = makeSettings(keys);
+            final YdbRetryHandler handler = new YdbRetryHandler(getName());
+            final long startNanos = System.nanoTime();
+            final YdbConnection c = conn;
+            final ReadRowsResult rrr = c.track(() -> c.getTableCtx().supplyResult(handler,
+                    session -> session.readRows(path, settings)))
+                    .join().getValue();
+            res.latencyEnd();
+            final long perKeyMicros = (System.nanoTime() - startNanos) / 1000L / keys.size();
+            res.setSampleCount(keys.size());
+            res.setResponseData(formatResult(rrr.getResultSetReader(), keys.size(), perKeyMicros));
+            res.setResponseHeaders(YdbUtils.responseHeaders(conn.getConnectionInfo(), handler.formatTrace()));
+            res.setURL(new YdbQueryResult(new byte[0], handler.getRetryCount()).makeURL());
+        } catch (Exception ex) {
+            fillError(res, (ex instanceof CompletionException && ex.getCause() != null)
+                    ? ex.getCause() : ex);
+        }
+        res.sampleEnd();
+        return res;
+    }
+
+    private byte[] formatResult(ResultSetReader rsr, int keyCount, long perKeyMicros) {
+        final YdbResultRenderer out = YdbResultRenderer.acquire(AbstractYdbTestElement.MAX_STORE_CHARS);
+        try {
+            out.append("** Keys: ").append(keyCount)
+                    .append(", rows: ").append(rsr.getRowCount())
+                    .append(", per-key latency: ").append(perKeyMicros).append(" us\n");
+            if (isStoreRows()) {
+                out.appendColumns(rsr);
+                out.appendRows(rsr, 0L, -1L);
+            }
+            return out.toByteArray();
+        } finally {
+            out.release();
+        }
+    }
+
+    private List<StructValue> makeKeys() {
+        if (binder == null || !binder.isCompiledFor(getKeyTypes())) {
+            binder = YdbParamBinder.compile(getKeyTypes());
+            keyNames = getKeyColumns().split(",");
+            for (int i = 0; i < keyNames.length; i++) {
+                keyNames[i] = keyNames[i].trim();
+            }
+            if (keyNames.length != binder.getCount()) {
+                throw new IllegalArgumentException("number of key columns ("
+                        + keyNames.length + ") and number of types ("
+                        + binder.getCount() + ") are not equal");
+            }
+        }
+        final List<StructValue> keys = new ArrayList<>();
+        for (String line : getKeyValues().split("\n")) {
+            if (line.trim().length() == 0) {
+                continue;
+            }
+            final Value<?>[] converted = binder.convert(line);
+            final Map<String, Value<?>> members = new HashMap<>();
+            for (int i = 0; i < keyNames.length; i++) {
+                members.put(keyNames[i], converted[i]);
+            }
+            keys.add(StructValue.of(members));
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("No keys to read in " + getName());
+        }
+        return keys;
+    }
+
+    private String makeTablePath(YdbConnection conn) {
+        String path = getTablePath().trim();
+        if (path.startsWith("/")) {
+            return path;
+        }
+        return conn.getDatabase() + "/" + path;
+    }
+
+    private ReadRowsSettings makeSettings(List<StructValue> keys) {
+        ReadRowsSettings.ReadRowsSettingsBuilder builder = ReadRowsSettings.newBuilder().addKeys(keys);
+        if (StringUtils.isNotBlank(getColumnNames())) {
+            String[] names = getColumnNames().split(",");
+            for (int i = 0; i < names.length; i++) {
+                names[i] = names[i].trim();
+            }
+            builder.addColumns(Arrays.asList(names));
+        }
+        int timeout = YdbUtils.parseInt(getQueryTimeout(), 0);
+        if (timeout > 0) {
+            builder.withRequestTimeout(java.time.Duration.ofSeconds(timeout));
+        }
+        return builder.build();
+    }
+
+    private YdbConnection getConnection() {
+        if (StringUtils.isBlank(getDataSource())) {
+            throw new IllegalArgumentException("Name for DataSoure must not be empty in " + getName());
+        }
+        return YdbConfigElement.getConnection(getDataSource());
+    }
+
+    private SampleResult newSampleResult() {
+        SampleResult res = new SampleResult();
+        res.setSampleLabel(getName());
+        res.setSamplerData("[ReadRows] " + getTablePath() + "\n" + getKeyColumns()
+                + "\n" + getKeyValues());
+        res.setDataType(SampleResult.TEXT);
+        res.setContentType("text/plain");
+        res.setDataEncoding(CHARSET.name());
+        res.setSuccessful(true);
+        res.setResponseMessageOK();
+        res.setResponseCodeOK();
+        return res;
+    }
+
+    private static void fillError(SampleResult res, Throwable ex) {
+        res.setResponseMessage(YdbUtils.fullMessage(ex));
+        res.setResponseCode(YdbUtils.responseCode(ex));
+        res.setResponseData(
+                ObjectUtils.defaultIfNull(ex.getMessage(), "NO MESSAGE"),
+                res.getDataEncodingWithDefault());
+        res.setSuccessful(false);
+    }
+
+    @Override
+    public void testStarted() {
+    }
+
+    @Override
+    public void testStarted(String host) {
+    }
+
+    @Override
+    public void testEnded() {
+        testEnded("");
+    }
+
+    @Override
+    public void testEnded(String host) {
+        YdbRetryStats.report(getName());
+    }
+
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(String dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public String getTablePath() {
+        return tablePath;
+    }
+
+    public void setTablePath(String tablePath) {
+        this.tablePath = tablePath;
+    }
+
+    public String getKeyColumns() {
+        return keyColumns;
+    }
+
+    public void setKeyColumns(String keyColumns) {
+        this.keyColumns = keyColumns;
+    }
+
+    public String getKeyTypes() {
+        return keyTypes;
+    }
+
+    public void setKeyTypes(String keyTypes) {
+        this.keyTypes = keyTypes;
+    }
+
+    public String getKeyValues() {
+        return keyValues;
+    }
+
+    public void setKeyValues(String keyValues) {
+        this.keyValues = keyValues;
+    }
+
+    public String getColumnNames() {
+        return columnNames;
+    }
+
+    public void setColumnNames(String columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    public String getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    public void setQueryTimeout(String queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
+    public boolean isStoreRows() {
+        return storeRows;
+    }
+
+    public void setStoreRows(boolean storeRows) {
+        this.storeRows = storeRows;
+    }
+
+}
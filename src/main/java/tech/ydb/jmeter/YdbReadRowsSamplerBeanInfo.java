@@ -0,0 +1,52 @@
+package tech.ydb.jmeter;
+
+import java.beans.PropertyDescriptor;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+import org.apache.jmeter.testbeans.gui.TypeEditor;
+
+public class YdbReadRowsSamplerBeanInfo extends BeanInfoSupport {
+
+    public YdbReadRowsSamplerBeanInfo() {
+        super(YdbReadRowsSampler.class);
+
+        createPropertyGroup("varName", new String[] { "dataSource" });
+
+        createPropertyGroup("table", new String[] {
+            "tablePath", "keyColumns", "keyTypes", "columnNames", "queryTimeout" });
+
+        createPropertyGroup("keys", new String[] { "keyValues", "storeRows" });
+
+        PropertyDescriptor p = property("dataSource");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("tablePath");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("keyColumns");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("keyTypes");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("columnNames");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("queryTimeout");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("keyValues", TypeEditor.TextAreaEditor);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("storeRows");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.TRUE);
+    }
+}
@@ -0,0 +1,351 @@
+package tech.ydb.jmeter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.result.ValueReader;
+import tech.ydb.table.values.DecimalValue;
+import tech.ydb.table.values.OptionalType;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.Type;
+
+/**
+ * Order-independent checksum of the query results.
+ * Each row is encoded from the typed cell values into the reusable buffer
+ * and hashed with XXH64, the row hashes are summed up.
+ * The same set of rows therefore gives the same digest regardless of
+ * the row order and of the way the rows are split into the result set parts.
+ *
+ * @author zinal
+ */
+public class YdbResultChecksum {
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    // Cell tags, so that the adjacent values cannot be confused
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_VALUE = 1;
+
+    private byte[] buf = new byte[256];
+    private int pos;
+    private long digest;
+    private long rows;
+
+    public void reset() {
+        digest = 0L;
+        rows = 0L;
+    }
+
+    /**
+     * @return the sum of the row hashes
+     */
+    public long getDigest() {
+        return digest;
+    }
+
+    /**
+     * @return the number of rows processed
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the digest as 16 hexadecimal digits
+     */
+    public String getDigestHex() {
+        return toHex(digest);
+    }
+
+    public static String toHex(long v) {
+        String s = Long.toHexString(v);
+        if (s.length() < 16) {
+            char[] pad = new char[16 - s.length()];
+            Arrays.fill(pad, '0');
+            s = new String(pad) + s;
+        }
+        return s;
+    }
+
+    /**
+     * Add the remaining rows of the result set to the checksum.
+     *
+     * @param rsr result set
+     * @param resultSetIndex index of the result set, used as the hash seed
+     */
+    public void addRows(ResultSetReader rsr, long resultSetIndex) {
+        final int nc = rsr.getColumnCount();
+        final Type[] types = new Type[nc];
+        for (int ic=0; ic<nc; ic++) {
+            types[ic] = rsr.getColumnType(ic);
+        }
+        while (rsr.next()) {
+            pos = 0;
+            for (int ic=0; ic<nc; ic++) {
+                putValue(rsr.getColumn(ic), types[ic]);
+            }
+            addRow(buf, pos, resultSetIndex);
+        }
+    }
+
+    /**
+     * Add the rows of another checksum, which gives the checksum of the union of the rows.
+     *
+     * @param other checksum to be added
+     */
+    public void merge(YdbResultChecksum other) {
+        digest += other.digest;
+        rows += other.rows;
+    }
+
+    /**
+     * Add the encoded row to the checksum.
+     *
+     * @param row encoded row data
+     * @param len length of the encoded row data
+     * @param resultSetIndex index of the result set, used as the hash seed
+     */
+    public void addRow(byte[] row, int len, long resultSetIndex) {
+        digest += xxHash64(row, 0, len, resultSetIndex);
+        rows += 1L;
+    }
+
+    private void putValue(ValueReader vr, Type type) {
+        while (type.getKind() == Type.Kind.OPTIONAL) {
+            if (! vr.isOptionalItemPresent()) {
+                putByte(TAG_NULL);
+                return;
+            }
+            vr = vr.getOptionalItem();
+            type = ((OptionalType) type).getItemType();
+        }
+        putByte(TAG_VALUE);
+        switch (type.getKind()) {
+            case PRIMITIVE:
+                putPrimitive(vr, (PrimitiveType) type);
+                break;
+            case DECIMAL:
+                DecimalValue dv = vr.getDecimal();
+                putLong(dv.getHigh());
+                putLong(dv.getLow());
+                break;
+            default:
+                putString(vr.getValue().toString());
+        }
+    }
+
+    private void putPrimitive(ValueReader vr, PrimitiveType type) {
+        switch (type) {
+            case Bool:
+                putByte(vr.getBool() ? (byte) 1 : (byte) 0);
+                break;
+            case Int8:
+                putLong(vr.getInt8());
+                break;
+            case Uint8:
+                putLong(vr.getUint8());
+                break;
+            case Int16:
+                putLong(vr.getInt16());
+                break;
+            case Uint16:
+                putLong(vr.getUint16());
+                break;
+            case Int32:
+                putLong(vr.getInt32());
+                break;
+            case Uint32:
+                putLong(vr.getUint32());
+                break;
+            case Int64:
+                putLong(vr.getInt64());
+                break;
+            case Uint64:
+                putLong(vr.getUint64());
+                break;
+            case Float:
+                putLong(Float.floatToIntBits(vr.getFloat()));
+                break;
+            case Double:
+                putLong(Double.doubleToLongBits(vr.getDouble()));
+                break;
+            case Text:
+                putString(vr.getText());
+                break;
+            case Bytes:
+                putBytes(vr.getBytes());
+                break;
+            case Yson:
+                putBytes(vr.getYson());
+                break;
+            case Json:
+                putString(vr.getJson());
+                break;
+            case JsonDocument:
+                putString(vr.getJsonDocument());
+                break;
+            case Uuid:
+                UUID uuid = vr.getUuid();
+                putLong(uuid.getMostSignificantBits());
+                putLong(uuid.getLeastSignificantBits());
+                break;
+            case Date:
+                LocalDate date = vr.getDate();
+                putLong(date.toEpochDay());
+                break;
+            case Datetime:
+                LocalDateTime dt = vr.getDatetime();
+                putLong(dt.toEpochSecond(ZoneOffset.UTC));
+                break;
+            case Timestamp:
+                Instant ts = vr.getTimestamp();
+                putLong(ts.getEpochSecond());
+                putLong(ts.getNano());
+                break;
+            case Interval:
+                Duration d = vr.getInterval();
+                putLong(d.getSeconds());
+                putLong(d.getNano());
+                break;
+            default:
+                putString(vr.getValue().toString());
+        }
+    }
+
+    private void ensure(int n) {
+        if (pos + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(pos + n, 2 * buf.length));
+        }
+    }
+
+    private void putByte(byte v) {
+        ensure(1);
+        buf[pos++] = v;
+    }
+
+    private void putLong(long v) {
+        ensure(8);
+        for (int i = 0; i < 8; i++) {
+            buf[pos++] = (byte) v;
+            v >>>= 8;
+        }
+    }
+
+    private void putBytes(byte[] v) {
+        putLong(v.length);
+        ensure(v.length);
+        System.arraycopy(v, 0, buf, pos, v.length);
+        pos += v.length;
+    }
+
+    private void putString(String v) {
+        // UTF-16 code units, no need to encode
+        final int len = v.length();
+        putLong(len);
+        ensure(2 * len);
+        for (int i = 0; i < len; i++) {
+            char c = v.charAt(i);
+            buf[pos++] = (byte) c;
+            buf[pos++] = (byte) (c >>> 8);
+        }
+    }
+
+    /**
+     * XXH64 hash of the byte array fragment.
+     *
+     * @param data input data
+     * @param off fragment offset
+     * @param len fragment length
+     * @param seed hash seed
+     * @return hash value
+     */
+    public static long xxHash64(byte[] data, int off, int len, long seed) {
+        final int end = off + len;
+        int p = off;
+        long h;
+        if (len >= 32) {
+            final int limit = end - 32;
+            long v1 = seed + PRIME64_1 + PRIME64_2;
+            long v2 = seed + PRIME64_2;
+            long v3 = seed;
+            long v4 = seed - PRIME64_1;
+            do {
+                v1 = round(v1, getLong(data, p));
+                v2 = round(v2, getLong(data, p + 8));
+                v3 = round(v3, getLong(data, p + 16));
+                v4 = round(v4, getLong(data, p + 24));
+                p += 32;
+            } while (p <= limit);
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+                    + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = seed + PRIME64_5;
+        }
+        h += len;
+        while (p + 8 <= end) {
+            h ^= round(0L, getLong(data, p));
+            h = Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+            p += 8;
+        }
+        if (p + 4 <= end) {
+            h ^= (getInt(data, p) & 0xFFFFFFFFL) * PRIME64_1;
+            h = Long.rotateLeft(h, 23) * PRIME64_2 + PRIME64_3;
+            p += 4;
+        }
+        while (p < end) {
+            h ^= (data[p] & 0xFFL) * PRIME64_5;
+            h = Long.rotateLeft(h, 11) * PRIME64_1;
+            p += 1;
+        }
+        h ^= h >>> 33;
+        h *= PRIME64_2;
+        h ^= h >>> 29;
+        h *= PRIME64_3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long mergeRound(long acc, long val) {
+        acc ^= round(0L, val);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+
+    private static long getLong(byte[] b, int p) {
+        return (b[p] & 0xFFL)
+                | ((b[p + 1] & 0xFFL) << 8)
+                | ((b[p + 2] & 0xFFL) << 16)
+                | ((b[p + 3] & 0xFFL) << 24)
+                | ((b[p + 4] & 0xFFL) << 32)
+                | ((b[p + 5] & 0xFFL) << 40)
+                | ((b[p + 6] & 0xFFL) << 48)
+                | ((b[p + 7] & 0xFFL) << 56);
+    }
+
+    private static int getInt(byte[] b, int p) {
+        return (b[p] & 0xFF)
+                | ((b[p + 1] & 0xFF) << 8)
+                | ((b[p + 2] & 0xFF) << 16)
+                | ((b[p + 3] & 0xFF) << 24);
+    }
+
+}
@@ -0,0 +1,376 @@
+package tech.ydb.jmeter;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.result.ValueReader;
+import tech.ydb.table.values.OptionalType;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.Type;
+
+/**
+ * Formats the query results as text directly into the bounded UTF-8 byte buffer.
+ * Cells are read with the typed getters of {@link ValueReader}, so that integer, boolean
+ * and text values are written without intermediate objects. The output is the same
+ * as the text form of the SDK values ({@code Value.toString()}).
+ * Rows are no longer visited once the limit is reached.
+ *
+ * Renderers are pooled, see {@link #acquire(int)} and {@link #release()}.
+ *
+ * @author zinal
+ */
+public class YdbResultRenderer {
+
+    // Room for the headers and footers written after the data rows have hit the limit
+    private static final int RESERVE = 1024;
+    private static final int INITIAL_SIZE = 1024;
+    private static final int POOL_MAX = 64;
+
+    private static final ConcurrentLinkedQueue<YdbResultRenderer> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOL_SIZE = new AtomicInteger();
+
+    private static final byte[] DIGITS = "0123456789".getBytes(AbstractYdbTestElement.CHARSET);
+    private static final byte[] TRUE = "true".getBytes(AbstractYdbTestElement.CHARSET);
+    private static final byte[] FALSE = "false".getBytes(AbstractYdbTestElement.CHARSET);
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(AbstractYdbTestElement.CHARSET);
+
+    private byte[] buf = new byte[INITIAL_SIZE];
+    private int pos;
+    private int limit;
+    // Current capacity limit, lower than limit + RESERVE while formatting the rows
+    private int cap;
+    private final byte[] digits = new byte[20];
+
+    private YdbResultRenderer() {
+    }
+
+    /**
+     * @param limit maximum number of bytes of the formatted rows
+     * @return a cleared renderer, either pooled or new
+     */
+    public static YdbResultRenderer acquire(int limit) {
+        YdbResultRenderer r = POOL.poll();
+        if (r == null) {
+            r = new YdbResultRenderer();
+        } else {
+            POOL_SIZE.decrementAndGet();
+        }
+        r.limit = limit;
+        r.reset();
+        return r;
+    }
+
+    /**
+     * Return the renderer to the pool. It must not be used after that.
+     */
+    public void release() {
+        if (POOL_SIZE.incrementAndGet() <= POOL_MAX) {
+            POOL.add(this);
+        } else {
+            POOL_SIZE.decrementAndGet();
+        }
+    }
+
+    public void reset() {
+        pos = 0;
+        cap = limit + RESERVE;
+    }
+
+    public int size() {
+        return pos;
+    }
+
+    /**
+     * @return true, if the formatted data has reached the limit
+     */
+    public boolean isFull() {
+        return pos >= limit;
+    }
+
+    /**
+     * @return the copy of the formatted data
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, pos);
+    }
+
+    private boolean ensure(int n) {
+        int required = pos + n;
+        if (required > cap) {
+            return false;
+        }
+        if (required > buf.length) {
+            buf = Arrays.copyOf(buf, Math.min(cap, Math.max(required, 2 * buf.length)));
+        }
+        return true;
+    }
+
+    public YdbResultRenderer append(char c) {
+        if (c < 0x80) {
+            if (ensure(1)) {
+                buf[pos++] = (byte) c;
+            }
+            return this;
+        }
+        return append(String.valueOf(c));
+    }
+
+    public YdbResultRenderer append(byte[] data) {
+        int n = Math.min(data.length, cap - pos);
+        if (n > 0 && ensure(n)) {
+            System.arraycopy(data, 0, buf, pos, n);
+            pos += n;
+        }
+        return this;
+    }
+
+    public YdbResultRenderer append(long v) {
+        if (v == Long.MIN_VALUE) {
+            return append(MIN_LONG);
+        }
+        if (v < 0) {
+            append('-');
+            v = -v;
+        }
+        int n = 0;
+        do {
+            digits[n++] = DIGITS[(int) (v % 10L)];
+            v /= 10L;
+        } while (v != 0L);
+        if (ensure(n)) {
+            while (n > 0) {
+                buf[pos++] = digits[--n];
+            }
+        }
+        return this;
+    }
+
+    private YdbResultRenderer appendUnsigned(long v) {
+        if (v >= 0) {
+            return append(v);
+        }
+        return append(Long.toUnsignedString(v));
+    }
+
+    /**
+     * Append the text as UTF-8, truncating it at the capacity limit.
+     *
+     * @param s text value
+     * @return this
+     */
+    public YdbResultRenderer append(String s) {
+        return appendText(s, false);
+    }
+
+    /**
+     * Append the text in double quotes, with the quotes and backslashes escaped,
+     * the same way as the SDK prints the Text and Json values.
+     *
+     * @param s text value
+     * @return this
+     */
+    public YdbResultRenderer appendQuoted(String s) {
+        append('"');
+        appendText(s, true);
+        return append('"');
+    }
+
+    private YdbResultRenderer appendText(String s, boolean escape) {
+        final int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (escape && (c == '"' || c == '\\')) {
+                    if (!ensure(2)) {
+                        return this;
+                    }
+                    buf[pos++] = '\\';
+                } else if (!ensure(1)) {
+                    return this;
+                }
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                if (!ensure(2)) {
+                    return this;
+                }
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                if (!ensure(4)) {
+                    return this;
+                }
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                if (!ensure(3)) {
+                    return this;
+                }
+                if (Character.isSurrogate(c)) {
+                    // Unpaired surrogate, same as the JDK encoder
+                    c = '?';
+                    buf[pos++] = (byte) c;
+                    continue;
+                }
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Append the tab-separated column names.
+     *
+     * @param rsr result set
+     */
+    public void appendColumns(ResultSetReader rsr) {
+        final int nc = rsr.getColumnCount();
+        for (int ic=0; ic<nc; ic++) {
+            if (ic>0)
+                append('\t');
+            append(rsr.getColumnName(ic));
+        }
+        append('\n');
+    }
+
+    /**
+     * Append the tab-separated rows, until either the limit or the maximum number of rows is reached.
+     *
+     * @param rsr result set
+     * @param totalRows number of rows already processed in the previous parts of the result set
+     * @param maxRows maximum number of rows to be formatted, negative for no limit
+     */
+    public void appendRows(ResultSetReader rsr, long totalRows, long maxRows) {
+        final int nc = rsr.getColumnCount();
+        final Type[] types = new Type[nc];
+        for (int ic=0; ic<nc; ic++) {
+            types[ic] = rsr.getColumnType(ic);
+        }
+        cap = limit;
+        try {
+            int nrow = 0;
+            while (! isFull()) {
+                if (maxRows >= 0L && (totalRows + nrow) >= maxRows) {
+                    break;
+                }
+                if (! rsr.next()) {
+                    break;
+                }
+                for (int ic=0; ic<nc; ic++) {
+                    if (ic>0)
+                        append('\t');
+                    appendValue(rsr.getColumn(ic), types[ic]);
+                }
+                append('\n');
+                nrow += 1;
+            }
+        } finally {
+            cap = limit + RESERVE;
+        }
+    }
+
+    /**
+     * Append the single value, "?" for the missing optional values.
+     *
+     * @param vr value reader
+     * @param type value type
+     */
+    public void appendValue(ValueReader vr, Type type) {
+        while (type.getKind() == Type.Kind.OPTIONAL) {
+            if (! vr.isOptionalItemPresent()) {
+                append('?');
+                return;
+            }
+            vr = vr.getOptionalItem();
+            type = ((OptionalType) type).getItemType();
+        }
+        switch (type.getKind()) {
+            case PRIMITIVE:
+                appendPrimitive(vr, (PrimitiveType) type);
+                break;
+            case DECIMAL:
+                append(vr.getDecimal().toBigDecimal().toPlainString());
+                break;
+            default:
+                append(vr.getValue().toString());
+        }
+    }
+
+    private void appendPrimitive(ValueReader vr, PrimitiveType type) {
+        switch (type) {
+            case Bool:
+                append(vr.getBool() ? TRUE : FALSE);
+                break;
+            case Int8:
+                append(vr.getInt8());
+                break;
+            case Uint8:
+                append(vr.getUint8());
+                break;
+            case Int16:
+                append(vr.getInt16());
+                break;
+            case Uint16:
+                append(vr.getUint16());
+                break;
+            case Int32:
+                append(vr.getInt32());
+                break;
+            case Uint32:
+                append(vr.getUint32());
+                break;
+            case Int64:
+                append(vr.getInt64());
+                break;
+            case Uint64:
+                appendUnsigned(vr.getUint64());
+                break;
+            case Float:
+                append(Float.toString(vr.getFloat()));
+                break;
+            case Double:
+                append(Double.toString(vr.getDouble()));
+                break;
+            case Text:
+                appendQuoted(vr.getText());
+                break;
+            case Bytes:
+            case Yson:
+                // Binary values may be invalid UTF-8, so the SDK's escaped text form is used
+                append(vr.getValue().toString());
+                break;
+            case Json:
+                appendQuoted(vr.getJson());
+                break;
+            case JsonDocument:
+                appendQuoted(vr.getJsonDocument());
+                break;
+            case Uuid:
+                append('"').append(vr.getUuid().toString()).append('"');
+                break;
+            case Date:
+                append(vr.getDate().toString());
+                break;
+            case Datetime:
+                append(DateTimeFormatter.ISO_DATE_TIME.format(vr.getDatetime()));
+                break;
+            case Timestamp:
+                append(vr.getTimestamp().toString());
+                break;
+            case Interval:
+                append(vr.getInterval().toString());
+                break;
+            default:
+                append(vr.getValue().toString());
+        }
+    }
+
+}
@@ -1,10 +1,19 @@
 package tech.ydb.jmeter;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
 import tech.ydb.core.StatusCode;
 import tech.ydb.table.SessionRetryContext;
 import tech.ydb.table.SessionRetryHandler;
 
 /**
+ * Retry handler which keeps the trace of the failed attempts of the single request,
+ * and counts the retries and failures by status in {@link YdbRetryStats}.
  *
  * @author mzinal
  */
@@ -13,16 +22,129 @@ public class YdbRetryHandler implements SessionRetryHandler {
     private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(YdbRetryHandler.class);
 
     private final String queryId;
-    private int retryCount;
+    // Test element name for the statistics, which may differ from the request label
+    private final String statsName;
+    private final List<Attempt> attempts = new ArrayList<>();
+    private volatile int retryCount;
+    // Attempt tracking for the retry contexts without the handler support
+    private int attemptCount;
+    private long firstStartNanos;
+    private long lastEndNanos;
+    private StatusCode lastCode;
 
     public YdbRetryHandler(String queryId) {
+        this(queryId, queryId);
+    }
+
+    /**
+     * @param queryId request label for the log
+     * @param statsName test element name to count the retries in {@link YdbRetryStats}
+     */
+    public YdbRetryHandler(String queryId, String statsName) {
         this.queryId = queryId;
+        this.statsName = statsName;
     }
 
     public int getRetryCount() {
         return retryCount;
     }
 
+    /**
+     * @return the failed attempts which were retried
+     */
+    public synchronized List<Attempt> getAttempts() {
+        return new ArrayList<>(attempts);
+    }
+
+    /**
+     * Format the retry trace as the response headers, one line per failed attempt.
+     *
+     * @return the trace text, empty if there were no retries
+     */
+    public synchronized String formatTrace() {
+        if (attempts.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("YDB-Retries: ").append(attempts.size()).append("\n");
+        for (Attempt a : attempts) {
+            sb.append("YDB-Retry-").append(a.getNumber()).append(": ")
+                    .append(a.getCode() != null ? a.getCode().name() : "EXCEPTION")
+                    .append(", elapsed ").append(a.getElapsedMillis()).append(" ms")
+                    .append(", backoff ").append(a.getBackoffMillis()).append(" ms\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Wrap the request for the retry context which does not accept the handler (Query Service).
+     * Each attempt after the first one registers the previous attempt as retried,
+     * with the delay between the attempts as its backoff.
+     *
+     * @param <S> session type
+     * @param <T> result type
+     * @param fn the request
+     * @return the wrapped request
+     */
+    public <S, T> Function<S, CompletableFuture<Result<T>>> wrap(Function<S, CompletableFuture<Result<T>>> fn) {
+        return session -> {
+            onAttemptStart();
+            return fn.apply(session).whenComplete((res, ex) -> onAttemptEnd(
+                    (res != null) ? res.getStatus().getCode() : null));
+        };
+    }
+
+    /**
+     * Complete the request wrapped with {@link #wrap(Function)}, counting the final failure.
+     *
+     * @param status final status of the request
+     */
+    public void onFinish(Status status) {
+        if (! status.isSuccess()) {
+            YdbRetryStats.forName(statsName).onFailure(status.getCode());
+            LOGGER.info("Query [{}] failed with status {} at {} retries.",
+                    queryId, status.getCode(), retryCount);
+        } else if (retryCount > 0) {
+            LOGGER.debug("Query [{}] completed with {} retries.", queryId, retryCount);
+        }
+    }
+
+    private synchronized void onAttemptStart() {
+        final long now = System.nanoTime();
+        if (attemptCount == 0) {
+            firstStartNanos = now;
+        } else {
+            addAttempt(lastCode, attemptCount, (now - lastEndNanos) / 1000000L,
+                    (lastEndNanos - firstStartNanos) / 1000000L);
+        }
+        ++attemptCount;
+    }
+
+    private synchronized void onAttemptEnd(StatusCode code) {
+        lastEndNanos = System.nanoTime();
+        lastCode = code;
+    }
+
+    private synchronized void addAttempt(StatusCode code, int retryNumber, long backoff, long millis) {
+        attempts.add(new Attempt(code, retryNumber, backoff, millis));
+        retryCount = retryNumber;
+        YdbRetryStats.forName(statsName).onRetry(code, backoff);
+    }
+
+    @Override
+    public void onRetry(SessionRetryContext context, StatusCode code, int retryNumber,
+            long timeToRetry, long millis) {
+        addAttempt(code, retryNumber, timeToRetry, millis);
+        SessionRetryHandler.super.onRetry(context, code, retryNumber, timeToRetry, millis);
+    }
+
+    @Override
+    public void onRetry(SessionRetryContext context, Throwable issue, int retryNumber,
+            long timeToRetry, long millis) {
+        addAttempt(null, retryNumber, timeToRetry, millis);
+        SessionRetryHandler.super.onRetry(context, issue, retryNumber, timeToRetry, millis);
+    }
+
     @Override
     public void onSuccess(SessionRetryContext context, int retryNumber, long millis) {
         this.retryCount = retryNumber;
@@ -44,6 +166,7 @@ public class YdbRetryHandler implements SessionRetryHandler {
     @Override
     public void onLimit(SessionRetryContext context, StatusCode code, int retryLimit, long millis) {
         this.retryCount = retryLimit;
+        YdbRetryStats.forName(statsName).onFailure(code);
         LOGGER.info("Query [{}] exceeded retry limit of {} retries in {} ms.",
                 queryId, retryLimit, millis);
         SessionRetryHandler.super.onLimit(context, code, retryLimit, millis);
@@ -52,6 +175,7 @@ public class YdbRetryHandler implements SessionRetryHandler {
     @Override
     public void onError(SessionRetryContext context, StatusCode code, int retryNumber, long millis) {
         this.retryCount = retryNumber;
+        YdbRetryStats.forName(statsName).onFailure(code);
         LOGGER.info("Query [{}] failed with non-retryable status {} at {} retries in {} ms.",
                 queryId, code, retryNumber, millis);
         SessionRetryHandler.super.onError(context, code, retryNumber, millis);
@@ -60,9 +184,52 @@ public class YdbRetryHandler implements SessionRetryHandler {
     @Override
     public void onError(SessionRetryContext context, Throwable issue, int retryNumber, long millis) {
         this.retryCount = retryNumber;
+        YdbRetryStats.forName(statsName).onFailure(null);
         LOGGER.info("Query [{}] failed with non-retryable exception at {} retries in {} ms.",
                 queryId, retryNumber, millis, issue);
         SessionRetryHandler.super.onError(context, issue, retryNumber, millis);
     }
 
+    /**
+     * The failed attempt of the request.
+     */
+    public static final class Attempt {
+        private final StatusCode code;
+        private final int number;
+        private final long backoffMillis;
+        private final long elapsedMillis;
+
+        Attempt(StatusCode code, int number, long backoffMillis, long elapsedMillis) {
+            this.code = code;
+            this.number = number;
+            this.backoffMillis = backoffMillis;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * @return status of the attempt, null if it failed with the exception
+         */
+        public StatusCode getCode() {
+            return code;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        /**
+         * @return delay before the next attempt
+         */
+        public long getBackoffMillis() {
+            return backoffMillis;
+        }
+
+        /**
+         * @return time since the start of the request
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
 }
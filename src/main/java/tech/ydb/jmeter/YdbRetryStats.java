@@ -0,0 +1,140 @@
+package tech.ydb.jmeter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.core.StatusCode;
+
+/**
+ * Retry statistics by status code, collected per test element name across all threads.
+ *
+ * @author zinal
+ */
+public class YdbRetryStats {
+
+    private static final Logger LOG = LoggerFactory.getLogger(YdbRetryStats.class);
+
+    private static final ConcurrentHashMap<String, YdbRetryStats> ALL = new ConcurrentHashMap<>();
+    private static final StatusCode[] CODES = StatusCode.values();
+
+    private final String name;
+    private final LongAdder[] retries = newCounters();
+    private final LongAdder[] failures = newCounters();
+    private final LongAdder exceptions = new LongAdder();
+    private final LongAdder backoffMillis = new LongAdder();
+
+    private YdbRetryStats(String name) {
+        this.name = name;
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] ret = new LongAdder[CODES.length];
+        for (int i = 0; i < ret.length; ++i) {
+            ret[i] = new LongAdder();
+        }
+        return ret;
+    }
+
+    /**
+     * @param name test element name
+     * @return statistics for the test element, created if missing
+     */
+    public static YdbRetryStats forName(String name) {
+        return ALL.computeIfAbsent(name, YdbRetryStats::new);
+    }
+
+    /**
+     * @param name test element name
+     * @return statistics for the test element, or null if none were collected
+     */
+    public static YdbRetryStats remove(String name) {
+        return ALL.remove(name);
+    }
+
+    /**
+     * Write the statistics of the test element to the log and clear them,
+     * called at the end of the test by the element itself.
+     *
+     * @param name test element name
+     */
+    public static void report(String name) {
+        YdbRetryStats stats = remove(name);
+        if (stats != null) {
+            LOG.info("Retry statistics for [{}]: {}", name, stats);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Register the retry of the failed attempt.
+     *
+     * @param code status of the failed attempt, null for the exception
+     * @param backoff delay before the next attempt, milliseconds
+     */
+    public void onRetry(StatusCode code, long backoff) {
+        if (code != null) {
+            retries[code.ordinal()].increment();
+        } else {
+            exceptions.increment();
+        }
+        backoffMillis.add(backoff);
+    }
+
+    /**
+     * Register the request which failed after retries.
+     *
+     * @param code final status, null for the exception
+     */
+    public void onFailure(StatusCode code) {
+        if (code != null) {
+            failures[code.ordinal()].increment();
+        } else {
+            exceptions.increment();
+        }
+    }
+
+    public long getRetries(StatusCode code) {
+        return retries[code.ordinal()].sum();
+    }
+
+    public long getFailures(StatusCode code) {
+        return failures[code.ordinal()].sum();
+    }
+
+    public long getBackoffMillis() {
+        return backoffMillis.sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(100);
+        sb.append("retries:");
+        appendCounters(sb, retries);
+        sb.append(", failures:");
+        appendCounters(sb, failures);
+        sb.append(", exceptions: ").append(exceptions.sum())
+                .append(", total backoff: ").append(getBackoffMillis()).append(" ms");
+        return sb.toString();
+    }
+
+    private static void appendCounters(StringBuilder sb, LongAdder[] counters) {
+        boolean empty = true;
+        for (int i = 0; i < counters.length; ++i) {
+            long v = counters[i].sum();
+            if (v > 0L) {
+                sb.append(' ').append(CODES[i]).append('=').append(v);
+                empty = false;
+            }
+        }
+        if (empty) {
+            sb.append(" none");
+        }
+    }
+
+}
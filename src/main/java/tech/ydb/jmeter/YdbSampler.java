@@ -1,10 +1,19 @@
 package tech.ydb.jmeter;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.ObjectUtils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import org.apache.commons.lang3.StringUtils;
 
 import org.apache.jmeter.config.ConfigTestElement;
@@ -15,26 +24,253 @@ import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.samplers.Sampler;
 import org.apache.jmeter.testbeans.TestBean;
 import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.testelement.ThreadListener;
 
 /**
  * A sampler which understands YDB database requests.
  *
+ * When more than one in-flight request is allowed, the sampler works in the asynchronous mode:
+ * each call submits one new request with the arguments resolved for that call, and returns the result
+ * of one of the completed requests, which is filled in from the SDK callbacks. While the window
+ * of in-flight requests is still filling up, the call returns no sample if none has completed yet.
+ *
+ * With the arrival rate configured, the requests are sent in the open model: the start time
+ * of each request is taken from the schedule shared by all threads of the sampler, and the sample
+ * is timed from that intended start, so that the time spent waiting for the in-flight slot
+ * counts into the response time instead of lowering the request rate.
+ *
  * @author zinal
  */
 @TestElementMetadata(labelResource = "displayName")
 public class YdbSampler extends AbstractYdbTestElement
-        implements Sampler, TestBean, ConfigMergabilityIndicator {
+        implements Sampler, TestBean, ConfigMergabilityIndicator, ThreadListener {
 
     private static final long serialVersionUID = 1L;
+    private static final Logger LOG = LoggerFactory.getLogger(YdbSampler.class);
 
     private static final Set<String> APPLIABLE_CONFIG_CLASSES = new HashSet<>(
             Arrays.asList("org.apache.jmeter.config.gui.SimpleConfigGui"));
 
+    private String inFlightMax = "";
+    private String batchSize = "";
+    private String batchLinger = "";
+    private boolean commitTx = false;
+    private String scanParallelism = "";
+    private String scanTable = "";
+    private boolean phaseSubResults = false;
+    private String arrivalRate = "";
+    private String rampTime = "";
+    private String rateProfile = "";
+
+    // Completed requests of the asynchronous mode, per JMeter thread
+    private transient BlockingQueue<Completion> completed;
+    private transient int inFlight;
+    // Arrival taken from the schedule but not sent yet, per JMeter thread
+    private transient boolean arrivalPending;
+    private transient long arrivalNanos;
+
     public YdbSampler() {
     }
 
     @Override
     public SampleResult sample(Entry e) {
+        if (YdbTransactionState.current(StringUtils.trim(getDataSource())) == null) {
+            // Statements of the interactive transaction are executed one by one
+            if (isArrivalMode()) {
+                return sampleArrival();
+            }
+            if (getIntegerInFlightMax() > 1) {
+                return sampleAsync();
+            }
+        }
+
+        SampleResult res = newSampleResult();
+        res.sampleStart();
+
+        try {
+            YdbConnection conn;
+            try {
+                conn = getConnection();
+            } finally {
+                res.connectEnd();
+            }
+            YdbQueryResult result = execute(conn, res);
+            fillResult(res, result, conn);
+        } catch (Exception ex) {
+            fillError(res, ex);
+        }
+
+        // TODO: process warnings? Set Code and Message to success?
+        res.sampleEnd();
+        return res;
+    }
+
+    private SampleResult sampleAsync() {
+        if (completed == null) {
+            completed = new LinkedBlockingQueue<>();
+        }
+        final int limit = getIntegerInFlightMax();
+        // JMeter resolves the arguments once per call, so each call sends a single request
+        submit(-1L, System.nanoTime());
+        if (inFlight < limit) {
+            final Completion c = completed.poll();
+            return (c != null) ? finish(c) : null;
+        }
+        final Completion c;
+        try {
+            c = completed.take();
+        } catch (InterruptedException ix) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return finish(c);
+    }
+
+    private SampleResult sampleArrival() {
+        if (completed == null) {
+            completed = new LinkedBlockingQueue<>();
+        }
+        final YdbArrivalSchedule schedule;
+        try {
+            schedule = getSchedule();
+        } catch (Exception ex) {
+            SampleResult res = newSampleResult();
+            res.sampleStart();
+            fillError(res, ex);
+            res.sampleEnd();
+            return res;
+        }
+        final int limit = Math.max(1, getIntegerInFlightMax());
+        boolean submitted = false;
+        try {
+            while (true) {
+                if (!arrivalPending) {
+                    arrivalNanos = schedule.next();
+                    arrivalPending = true;
+                }
+                final long delay = arrivalNanos - System.nanoTime();
+                if (delay <= 0L && inFlight < limit) {
+                    if (submitted) {
+                        // JMeter resolves the arguments once per call, the next arrival waits for the next call
+                        final Completion c = completed.poll();
+                        return (c != null) ? finish(c) : null;
+                    }
+                    submit(schedule.toMillis(arrivalNanos), arrivalNanos);
+                    arrivalPending = false;
+                    submitted = true;
+                    continue;
+                }
+                final Completion c = (inFlight < limit)
+                        ? completed.poll(delay, TimeUnit.NANOSECONDS)
+                        : completed.take();
+                if (c != null) {
+                    return finish(c);
+                }
+            }
+        } catch (InterruptedException ix) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Send the request without waiting for its completion.
+     *
+     * @param intendedMillis intended start time of the request, or -1 to time it from the actual start
+     * @param intendedNanos intended start of the request, as returned by {@link System#nanoTime()}
+     */
+    private void submit(long intendedMillis, long intendedNanos) {
+        final SampleResult res = newSampleResult();
+        res.sampleStart();
+        CompletableFuture<YdbQueryResult> future;
+        YdbConnection conn = null;
+        try {
+            try {
+                conn = getConnection();
+            } finally {
+                res.connectEnd();
+            }
+            future = executeAsync(conn, res, intendedNanos);
+        } catch (Exception ex) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+        }
+        inFlight += 1;
+        final YdbConnection resConn = conn;
+        future.whenComplete((result, ex) -> {
+            res.sampleEnd();
+            final SampleResult out = (intendedMillis < 0L) ? res : rebase(res, intendedMillis);
+            if (ex != null) {
+                fillError(out, (ex instanceof CompletionException && ex.getCause() != null)
+                        ? ex.getCause() : ex);
+            } else {
+                fillResult(out, result, resConn);
+            }
+            completed.add(new Completion(out, result));
+        });
+    }
+
+    private SampleResult finish(Completion c) {
+        inFlight -= 1;
+        if (c.result != null) {
+            storeVariables(c.result);
+        }
+        return c.sample;
+    }
+
+    /**
+     * Copy the completed sample to the new one, which starts at the intended time.
+     * The connect time and latency are shifted by the delay of the actual start.
+     */
+    private SampleResult rebase(SampleResult res, long intendedMillis) {
+        final long delay = Math.max(0L, res.getStartTime() - intendedMillis);
+        final SampleResult out = newSampleResult();
+        out.setStampAndTime(intendedMillis, res.getEndTime() - intendedMillis);
+        out.setConnectTime(res.getConnectTime() + delay);
+        out.setLatency(res.getLatency() + delay);
+        out.setSampleCount(res.getSampleCount());
+        final SampleResult[] subs = res.getSubResults();
+        if (subs != null) {
+            for (SampleResult sr : subs) {
+                out.addRawSubResult(sr);
+            }
+        }
+        return out;
+    }
+
+    private boolean isArrivalMode() {
+        return getDoubleArrivalRate() > 0.0 || StringUtils.isNotBlank(rateProfile);
+    }
+
+    private YdbArrivalSchedule getSchedule() {
+        YdbArrivalSchedule schedule = YdbArrivalSchedule.get(getElementId());
+        if (schedule == null) {
+            // The schedule starts with the first request of any thread
+            schedule = YdbArrivalSchedule.register(getElementId(), makeSchedule());
+        }
+        return schedule;
+    }
+
+    private YdbArrivalSchedule makeSchedule() {
+        if (StringUtils.isNotBlank(rateProfile)) {
+            try {
+                return YdbArrivalSchedule.load(rateProfile.trim());
+            } catch (IOException ix) {
+                throw new IllegalArgumentException("Cannot read the rate profile " + rateProfile, ix);
+            }
+        }
+        return YdbArrivalSchedule.ramp(getDoubleArrivalRate(), YdbUtils.parseDouble(rampTime, 0.0));
+    }
+
+    private YdbConnection getConnection() {
+        String dataSource = getDataSource();
+        if (StringUtils.isBlank(dataSource)) {
+            throw new IllegalArgumentException("Name for DataSoure must not be empty in " + getName());
+        }
+        return YdbConfigElement.getConnection(dataSource);
+    }
+
+    private SampleResult newSampleResult() {
         SampleResult res = new SampleResult();
         res.setSampleLabel(getName());
         res.setSamplerData(toString());
@@ -46,37 +282,257 @@ public class YdbSampler extends AbstractYdbTestElement
         res.setSuccessful(true);
         res.setResponseMessageOK();
         res.setResponseCodeOK();
+        return res;
+    }
 
-        res.sampleStart();
+    private static void fillResult(SampleResult res, YdbQueryResult result, YdbConnection conn) {
+        res.setResponseData(result.getData());
+        res.setResponseHeaders(YdbUtils.responseHeaders(conn.getConnectionInfo(), result.getHeaders()));
+        res.setURL(result.makeURL());
+    }
 
+    private static void fillError(SampleResult res, Throwable ex) {
+        res.setResponseMessage(YdbUtils.fullMessage(ex));
+        res.setResponseCode(YdbUtils.responseCode(ex));
+        res.setResponseData(
+                ObjectUtils.defaultIfNull(ex.getMessage(), "NO MESSAGE"),
+                res.getDataEncodingWithDefault());
+        res.setSuccessful(false);
+    }
+
+    @Override
+    public void threadStarted() {
+    }
+
+    @Override
+    public void threadFinished() {
+        // Wait for the requests still in flight. JMeter does not take the samples
+        // after the thread has finished, so their results are only counted in the log.
+        int timeout = getIntegerQueryTimeout();
+        if (timeout <= 0) {
+            timeout = 60;
+        }
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+        int dropped = 0;
+        int failed = 0;
+        String lastError = null;
         try {
-            String dataSource = getDataSource();
-            if (StringUtils.isBlank(dataSource)) {
-                throw new IllegalArgumentException("Name for DataSoure must not be empty in " + getName());
+            while (inFlight > 0) {
+                long delay = deadline - System.currentTimeMillis();
+                final Completion c = (delay > 0) ? completed.poll(delay, TimeUnit.MILLISECONDS) : null;
+                if (c == null) {
+                    break;
+                }
+                inFlight -= 1;
+                dropped += 1;
+                if (! c.sample.isSuccessful()) {
+                    failed += 1;
+                    lastError = c.sample.getResponseMessage();
+                }
             }
+        } catch (InterruptedException ix) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped > 0 || inFlight > 0) {
+            LOG.warn("Sampler [{}] dropped {} completed ({} failed) and {} unfinished requests on thread exit",
+                    getName(), dropped, failed, inFlight);
+        }
+        if (lastError != null) {
+            LOG.warn("Sampler [{}] last dropped error: {}", getName(), lastError);
+        }
+        inFlight = 0;
+        arrivalPending = false;
+    }
 
-            YdbConnection conn;
+    @Override
+    public void testEnded(String host) {
+        YdbArrivalSchedule schedule = YdbArrivalSchedule.remove(getElementId());
+        if (schedule != null) {
+            LOG.info("Arrival schedule of [{}] issued {} requests", getName(), schedule.getArrivals());
+        }
+        super.testEnded(host);
+    }
+
+    /**
+     * @return the integer representation of inFlightMax
+     */
+    public int getIntegerInFlightMax() {
+        int value;
+        if (StringUtils.isEmpty(inFlightMax)) {
+            return 1;
+        } else {
             try {
-                conn = YdbConfigElement.getConnection(dataSource);
-            } finally {
-                res.connectEnd();
+                value = Integer.parseInt(inFlightMax.trim());
+            } catch (NumberFormatException nfe) {
+                value = 1;
             }
-            YdbQueryResult result = execute(conn.getTableCtx(), res);
-            res.setResponseData(result.getData());
-            res.setResponseHeaders(YdbConfigElement.getConnectionInfo(dataSource));
-            res.setURL(result.makeURL());
-        } catch (Exception ex) {
-            res.setResponseMessage(YdbUtils.fullMessage(ex));
-            res.setResponseCode("000");
-            res.setResponseData(
-                    ObjectUtils.defaultIfNull(ex.getMessage(), "NO MESSAGE"),
-                    res.getDataEncodingWithDefault());
-            res.setSuccessful(false);
         }
+        return value;
+    }
 
-        // TODO: process warnings? Set Code and Message to success?
-        res.sampleEnd();
-        return res;
+    /**
+     * @return the maximum number of in-flight requests per thread
+     */
+    public String getInFlightMax() {
+        return inFlightMax;
+    }
+
+    /**
+     * @param inFlightMax the maximum number of in-flight requests per thread
+     */
+    public void setInFlightMax(String inFlightMax) {
+        this.inFlightMax = inFlightMax;
+    }
+
+    /**
+     * @return the target request rate per second, across all threads
+     */
+    public double getDoubleArrivalRate() {
+        return YdbUtils.parseDouble(arrivalRate, 0.0);
+    }
+
+    /**
+     * @return the target request rate per second, across all threads
+     */
+    public String getArrivalRate() {
+        return arrivalRate;
+    }
+
+    /**
+     * @param arrivalRate the target request rate per second, across all threads
+     */
+    public void setArrivalRate(String arrivalRate) {
+        this.arrivalRate = arrivalRate;
+    }
+
+    /**
+     * @return the duration of the linear ramp-up to the target rate, in seconds
+     */
+    public String getRampTime() {
+        return rampTime;
+    }
+
+    /**
+     * @param rampTime the duration of the linear ramp-up to the target rate, in seconds
+     */
+    public void setRampTime(String rampTime) {
+        this.rampTime = rampTime;
+    }
+
+    /**
+     * @return the file with the request rate points, overriding the target rate
+     */
+    public String getRateProfile() {
+        return rateProfile;
+    }
+
+    /**
+     * @param rateProfile the file with the request rate points, overriding the target rate
+     */
+    public void setRateProfile(String rateProfile) {
+        this.rateProfile = rateProfile;
+    }
+
+    @Override
+    protected int getIntegerBatchSize() {
+        return YdbUtils.parseInt(batchSize, 0);
+    }
+
+    @Override
+    protected long getLongBatchLinger() {
+        return YdbUtils.parseLong(batchLinger, 0L);
+    }
+
+    /**
+     * @return the number of rows collected into a single batch
+     */
+    public String getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize the number of rows collected into a single batch
+     */
+    public void setBatchSize(String batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return the maximum wait time for the incomplete batch, in milliseconds
+     */
+    public String getBatchLinger() {
+        return batchLinger;
+    }
+
+    /**
+     * @param batchLinger the maximum wait time for the incomplete batch, in milliseconds
+     */
+    public void setBatchLinger(String batchLinger) {
+        this.batchLinger = batchLinger;
+    }
+
+    @Override
+    protected int getIntegerScanParallelism() {
+        return YdbUtils.parseInt(scanParallelism, 0);
+    }
+
+    /**
+     * @return the number of concurrent streams of the partitioned scan
+     */
+    public String getScanParallelism() {
+        return scanParallelism;
+    }
+
+    /**
+     * @param scanParallelism the number of concurrent streams of the partitioned scan
+     */
+    public void setScanParallelism(String scanParallelism) {
+        this.scanParallelism = scanParallelism;
+    }
+
+    /**
+     * @return the path to the table which key ranges are used to split the scan
+     */
+    @Override
+    public String getScanTable() {
+        return scanTable;
+    }
+
+    /**
+     * @param scanTable the path to the table which key ranges are used to split the scan
+     */
+    public void setScanTable(String scanTable) {
+        this.scanTable = scanTable;
+    }
+
+    /**
+     * @return true, if the request phases are reported as the sub-results
+     */
+    @Override
+    public boolean isPhaseSubResults() {
+        return phaseSubResults;
+    }
+
+    /**
+     * @param phaseSubResults true, if the request phases are reported as the sub-results
+     */
+    public void setPhaseSubResults(boolean phaseSubResults) {
+        this.phaseSubResults = phaseSubResults;
+    }
+
+    /**
+     * @return true, if the statement commits the interactive transaction it runs in
+     */
+    @Override
+    public boolean isCommitTx() {
+        return commitTx;
+    }
+
+    /**
+     * @param commitTx true, if the statement commits the interactive transaction it runs in
+     */
+    public void setCommitTx(boolean commitTx) {
+        this.commitTx = commitTx;
     }
 
     /**
@@ -87,4 +543,14 @@ public class YdbSampler extends AbstractYdbTestElement
         String guiClass = configElement.getProperty(TestElement.GUI_CLASS).getStringValue();
         return APPLIABLE_CONFIG_CLASSES.contains(guiClass);
     }
+
+    private static final class Completion {
+        final SampleResult sample;
+        final YdbQueryResult result;
+
+        Completion(SampleResult sample, YdbQueryResult result) {
+            this.sample = sample;
+            this.result = result;
+        }
+    }
 }
@@ -1,8 +1,62 @@
 package tech.ydb.jmeter;
 
+import java.beans.PropertyDescriptor;
+
 public class YdbSamplerBeanInfo extends AbstractYdbBeanInfoSupport {
 
     public YdbSamplerBeanInfo() {
         super(YdbSampler.class);
+
+        createPropertyGroup("async", new String[] { "inFlightMax" });
+
+        createPropertyGroup("arrival", new String[] { "arrivalRate", "rampTime", "rateProfile" });
+
+        createPropertyGroup("timing", new String[] { "phaseSubResults" });
+
+        createPropertyGroup("batching", new String[] { "batchSize", "batchLinger" });
+
+        createPropertyGroup("transaction", new String[] { "commitTx" });
+
+        createPropertyGroup("parallelScan", new String[] { "scanTable", "scanParallelism" });
+
+        PropertyDescriptor p = property("inFlightMax");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "1");
+
+        p = property("arrivalRate");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("rampTime");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("rateProfile");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("phaseSubResults");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.FALSE);
+
+        p = property("batchSize");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("batchLinger");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("scanTable");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("scanParallelism");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("commitTx");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.FALSE);
     }
 }
@@ -0,0 +1,572 @@
+package tech.ydb.jmeter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import org.apache.jmeter.gui.TestElementMetadata;
+import org.apache.jmeter.samplers.Entry;
+import org.apache.jmeter.samplers.Interruptible;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.samplers.Sampler;
+import org.apache.jmeter.services.FileServer;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+
+import tech.ydb.core.Status;
+import tech.ydb.table.settings.BulkUpsertSettings;
+import tech.ydb.table.values.ListValue;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.Value;
+
+/**
+ * A sampler which populates the YDB table before the benchmark, normally placed into the setUp Thread Group.
+ *
+ * A single sample writes all the rows, either generated from the row values (typically with
+ * the {@code @row()} and other generators), or read from the CSV file. The batches are built
+ * by the worker threads and written with BulkUpsert, with the limited number of requests in flight.
+ * The progress is logged periodically and saved into the optional progress file,
+ * so that the interrupted load continues from the last fully written batch.
+ *
+ * @author zinal
+ */
+@TestElementMetadata(labelResource = "displayName")
+public class YdbTableLoadSampler extends AbstractTestElement
+        implements Sampler, TestBean, Interruptible, TestStateListener {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOG = LoggerFactory.getLogger(YdbTableLoadSampler.class);
+
+    protected static final java.nio.charset.Charset CHARSET = AbstractYdbTestElement.CHARSET;
+
+    private String dataSource = "";
+    private String tablePath = "";
+    private String columnNames = "";
+    private String columnTypes = "";
+    private String queryTimeout = "";
+    private String rowValues = "";
+    private String rowCount = "";
+    private String csvFile = "";
+    private String batchRows = "";
+    private String workerThreads = "";
+    private String maxInFlight = "";
+    private String progressFile = "";
+    private String reportInterval = "";
+
+    private transient volatile Load current;
+
+    public YdbTableLoadSampler() {
+    }
+
+    @Override
+    public SampleResult sample(Entry e) {
+        final SampleResult res = new SampleResult();
+        res.setSampleLabel(getName());
+        res.setSamplerData("[TableLoad] " + getTablePath() + "\n" + getColumnNames()
+                + "\n" + getColumnTypes());
+        res.setDataType(SampleResult.TEXT);
+        res.setContentType("text/plain");
+        res.setDataEncoding(CHARSET.name());
+        res.setSuccessful(true);
+        res.setResponseMessageOK();
+        res.setResponseCodeOK();
+        res.sampleStart();
+        try {
+            if (StringUtils.isBlank(getDataSource())) {
+                throw new IllegalArgumentException("Name for DataSoure must not be empty in " + getName());
+            }
+            final Load load = new Load();
+            current = load;
+            try {
+                load.run();
+            } finally {
+                current = null;
+            }
+            res.latencyEnd();
+            res.setSentBytes(load.bytesDone.sum());
+            res.setResponseData(load.summary().getBytes(CHARSET));
+            if (load.failure != null) {
+                fillError(res, load.failure);
+            }
+        } catch (Exception ex) {
+            fillError(res, ex);
+        }
+        res.sampleEnd();
+        return res;
+    }
+
+    @Override
+    public boolean interrupt() {
+        final Load load = current;
+        if (load != null) {
+            load.fail(new InterruptedException("Table load interrupted"));
+        }
+        return load != null;
+    }
+
+    private static void fillError(SampleResult res, Throwable ex) {
+        if (ex instanceof CompletionException && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        res.setResponseMessage(YdbUtils.fullMessage(ex));
+        res.setResponseCode(YdbUtils.responseCode(ex));
+        res.setResponseData(
+                ObjectUtils.defaultIfNull(ex.getMessage(), "NO MESSAGE"),
+                res.getDataEncodingWithDefault());
+        res.setSuccessful(false);
+    }
+
+    static String formatDuration(long seconds) {
+        return String.format("%d:%02d:%02d", seconds / 3600L, (seconds / 60L) % 60L, seconds % 60L);
+    }
+
+    /**
+     * The state of a single table load.
+     */
+    private final class Load {
+        private final String[] columns;
+        private final String path;
+        private final BulkUpsertSettings settings;
+        private final int batch;
+        private final long limit;
+        private final int inFlightMax;
+        private final Semaphore inFlight;
+        private final Path progress;
+        private final long startRows;
+        private final long startNanos = System.nanoTime();
+
+        private final AtomicLong nextChunk = new AtomicLong();
+        private final LongAdder rowsDone = new LongAdder();
+        private final LongAdder bytesDone = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private volatile Throwable failure;
+
+        // Completed chunks above the watermark, with their row counts
+        private final TreeMap<Long, Integer> completed = new TreeMap<>();
+        private long watermarkChunk;
+        private long watermarkRows;
+
+        private BufferedReader reader;
+        private long readerChunk;
+
+        Load() throws IOException {
+            this.columns = getColumnNames().split(",");
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = columns[i].trim();
+            }
+            String table = getTablePath().trim();
+            if (!table.startsWith("/")) {
+                table = YdbConfigElement.getConnection(getDataSource()).getDatabase() + "/" + table;
+            }
+            this.path = table;
+            this.settings = new BulkUpsertSettings();
+            int timeout = YdbUtils.parseInt(getQueryTimeout(), 0);
+            if (timeout > 0) {
+                settings.setCancelAfter(java.time.Duration.ofSeconds(timeout));
+                settings.setTimeout(java.time.Duration.ofSeconds(timeout+1));
+            }
+            this.batch = Math.max(1, YdbUtils.parseInt(getBatchRows(), 1000));
+            this.limit = YdbUtils.parseLong(getRowCount(), 0L);
+            this.inFlightMax = Math.max(1, YdbUtils.parseInt(getMaxInFlight(), 2 * getWorkerCount()));
+            this.inFlight = new Semaphore(inFlightMax);
+            this.progress = StringUtils.isBlank(getProgressFile()) ? null
+                    : Paths.get(FileServer.resolveBaseRelativeName(getProgressFile().trim()));
+            this.startRows = readProgress();
+            this.watermarkRows = startRows;
+        }
+
+        private int getWorkerCount() {
+            int value = YdbUtils.parseInt(getWorkerThreads(), 0);
+            return (value > 0) ? value : Runtime.getRuntime().availableProcessors();
+        }
+
+        private long readProgress() throws IOException {
+            if (progress == null || !Files.exists(progress)) {
+                return 0L;
+            }
+            List<String> lines = Files.readAllLines(progress, CHARSET);
+            long value = lines.isEmpty() ? 0L : YdbUtils.parseLong(lines.get(0), 0L);
+            LOG.info("Table load [{}] resumes after {} rows written, according to {}", getName(), value, progress);
+            return value;
+        }
+
+        private void writeProgress() {
+            if (progress == null) {
+                return;
+            }
+            final long value;
+            synchronized(completed) {
+                value = watermarkRows;
+            }
+            try {
+                Path temp = progress.resolveSibling(progress.getFileName() + ".tmp");
+                Files.write(temp, (value + "\n").getBytes(CHARSET));
+                Files.move(temp, progress, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ix) {
+                LOG.warn("Table load [{}] failed to save the progress into {}", getName(), progress, ix);
+            }
+        }
+
+        void run() throws Exception {
+            if (limit > 0L && startRows >= limit) {
+                LOG.info("Table load [{}]: all {} rows are already written", getName(), limit);
+                return;
+            }
+            final boolean generate = StringUtils.isBlank(getCsvFile());
+            if (generate && limit <= 0L) {
+                throw new IllegalArgumentException("Row count must be set to generate the rows in " + getName());
+            }
+            if (!generate) {
+                openReader();
+            }
+            final int workers = getWorkerCount();
+            final long intervalMillis = 1000L * Math.max(1, YdbUtils.parseInt(getReportInterval(), 10));
+            LOG.info("Table load [{}] into {}: {} workers, {} rows per batch, {} batches in flight",
+                    getName(), path, workers, batch, inFlightMax);
+            final ExecutorService pool = Executors.newFixedThreadPool(workers);
+            try {
+                for (int i = 0; i < workers; ++i) {
+                    pool.submit(() -> work(generate));
+                }
+                pool.shutdown();
+                long lastRows = 0L;
+                long lastNanos = System.nanoTime();
+                while (!pool.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS)) {
+                    final long rows = rowsDone.sum();
+                    final long now = System.nanoTime();
+                    report(rows - lastRows, now - lastNanos);
+                    lastRows = rows;
+                    lastNanos = now;
+                }
+                // Wait for the batches still being written
+                while (!inFlight.tryAcquire(inFlightMax, intervalMillis, TimeUnit.MILLISECONDS)) {
+                    report(0L, 0L);
+                }
+            } catch (InterruptedException ix) {
+                fail(ix);
+                Thread.currentThread().interrupt();
+            } finally {
+                pool.shutdownNow();
+                if (reader != null) {
+                    reader.close();
+                }
+                writeProgress();
+            }
+            LOG.info("Table load [{}] {}: {}", getName(), (failure == null) ? "completed" : "failed", summary());
+        }
+
+        private void openReader() throws IOException {
+            reader = Files.newBufferedReader(Paths.get(FileServer.resolveBaseRelativeName(getCsvFile())), CHARSET);
+            long skipped = 0L;
+            while (skipped < startRows) {
+                String line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                if (line.trim().length() > 0) {
+                    skipped += 1;
+                }
+            }
+        }
+
+        private void work(boolean generate) {
+            final YdbParamBinder binder = YdbParamBinder.compile(getColumnTypes());
+            if (columns.length != binder.getCount()) {
+                fail(new IllegalArgumentException("number of columns ("
+                        + columns.length + ") and number of types ("
+                        + binder.getCount() + ") are not equal"));
+                return;
+            }
+            try {
+                while (failure == null) {
+                    final List<Value<?>> rows = new ArrayList<>(batch);
+                    final long chunk = generate ? generateChunk(binder, rows) : readChunk(binder, rows);
+                    if (chunk < 0L) {
+                        break;
+                    }
+                    inFlight.acquire();
+                    if (failure != null) {
+                        inFlight.release();
+                        break;
+                    }
+                    try {
+                        write(chunk, rows);
+                    } catch (RuntimeException ex) {
+                        // The completion handler is not attached, so the permit is returned here
+                        inFlight.release();
+                        throw ex;
+                    }
+                }
+            } catch (Exception ex) {
+                fail(ex);
+            }
+        }
+
+        private long generateChunk(YdbParamBinder binder, List<Value<?>> rows) {
+            final long chunk = nextChunk.getAndIncrement();
+            final long first = startRows + chunk * batch;
+            if (first >= limit) {
+                return -1L;
+            }
+            final long count = Math.min(batch, limit - first);
+            final String values = getRowValues();
+            for (long row = first; row < first + count; ++row) {
+                binder.setRowNumber(row);
+                rows.add(makeRow(binder.convert(values)));
+            }
+            return chunk;
+        }
+
+        private long readChunk(YdbParamBinder binder, List<Value<?>> rows) throws IOException {
+            final List<String> lines = new ArrayList<>(batch);
+            final long chunk;
+            synchronized(this) {
+                final long rowsRead = readerChunk * batch;
+                final int count = (limit > 0L) ? (int) Math.min(batch, Math.max(0L, limit - startRows - rowsRead))
+                        : batch;
+                while (lines.size() < count) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        break;
+                    }
+                    if (line.trim().length() > 0) {
+                        lines.add(line);
+                    }
+                }
+                if (lines.isEmpty()) {
+                    return -1L;
+                }
+                chunk = readerChunk++;
+            }
+            for (String line : lines) {
+                rows.add(makeRow(binder.convert(line)));
+            }
+            return chunk;
+        }
+
+        private StructValue makeRow(Value<?>[] converted) {
+            final Map<String, Value<?>> members = new HashMap<>();
+            for (int i = 0; i < columns.length; i++) {
+                members.put(columns[i], converted[i]);
+            }
+            return StructValue.of(members);
+        }
+
+        private void write(long chunk, List<Value<?>> rows) {
+            final int count = rows.size();
+            final ListValue data = ListValue.of(rows.toArray(new Value<?>[count]));
+            long estimate = 0L;
+            for (Value<?> row : rows) {
+                estimate += YdbUtils.estimateSize(row);
+            }
+            final long size = estimate;
+            final YdbRetryHandler handler = new YdbRetryHandler(getName());
+            final YdbConnection conn = YdbConfigElement.getConnection(getDataSource());
+            conn.track(() -> conn.getTableCtx().supplyStatus(handler,
+                    session -> session.executeBulkUpsert(path, data, settings)))
+                    .whenComplete((Status status, Throwable ex) -> {
+                        retries.add(handler.getRetryCount());
+                        try {
+                            if (ex != null) {
+                                fail(ex);
+                            } else if (!status.isSuccess()) {
+                                status.expectSuccess();
+                            } else {
+                                rowsDone.add(count);
+                                bytesDone.add(size);
+                                complete(chunk, count);
+                            }
+                        } catch (Exception fx) {
+                            fail(fx);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+        }
+
+        private void complete(long chunk, int count) {
+            synchronized(completed) {
+                completed.put(chunk, count);
+                Integer c;
+                while ((c = completed.remove(watermarkChunk)) != null) {
+                    watermarkChunk += 1L;
+                    watermarkRows += c;
+                }
+            }
+        }
+
+        void fail(Throwable ex) {
+            if (failure == null) {
+                failure = ex;
+                LOG.warn("Table load [{}] stops after the failure", getName(), ex);
+            }
+        }
+
+        private void report(long intervalRows, long intervalNanos) {
+            final long rows = rowsDone.sum();
+            final long elapsed = Math.max(1L, System.nanoTime() - startNanos);
+            final double avgRate = rows * 1e9 / elapsed;
+            final double rate = (intervalNanos > 0L) ? intervalRows * 1e9 / intervalNanos : avgRate;
+            String eta = "unknown";
+            if (limit > 0L && avgRate > 0.0) {
+                eta = formatDuration((long) ((limit - startRows - rows) / avgRate));
+            }
+            LOG.info("Table load [{}]: {} rows written, {} rows/s (avg {}), {} retries, ETA {}",
+                    getName(), startRows + rows, (long) rate, (long) avgRate, retries.sum(), eta);
+            writeProgress();
+        }
+
+        String summary() {
+            final long rows = rowsDone.sum();
+            final long elapsed = Math.max(1L, System.nanoTime() - startNanos);
+            return "** Rows: " + rows + " written, " + (startRows + rows) + " in total, bytes: " + bytesDone.sum()
+                    + ", rows/s: " + (long) (rows * 1e9 / elapsed) + ", retries: " + retries.sum()
+                    + ", elapsed: " + formatDuration(TimeUnit.NANOSECONDS.toSeconds(elapsed));
+        }
+    }
+
+    @Override
+    public void testStarted() {
+    }
+
+    @Override
+    public void testStarted(String host) {
+    }
+
+    @Override
+    public void testEnded() {
+        testEnded("");
+    }
+
+    @Override
+    public void testEnded(String host) {
+        YdbRetryStats.report(getName());
+    }
+
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(String dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public String getTablePath() {
+        return tablePath;
+    }
+
+    public void setTablePath(String tablePath) {
+        this.tablePath = tablePath;
+    }
+
+    public String getColumnNames() {
+        return columnNames;
+    }
+
+    public void setColumnNames(String columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    public String getColumnTypes() {
+        return columnTypes;
+    }
+
+    public void setColumnTypes(String columnTypes) {
+        this.columnTypes = columnTypes;
+    }
+
+    public String getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    public void setQueryTimeout(String queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
+    public String getRowValues() {
+        return rowValues;
+    }
+
+    public void setRowValues(String rowValues) {
+        this.rowValues = rowValues;
+    }
+
+    public String getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(String rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public String getCsvFile() {
+        return csvFile;
+    }
+
+    public void setCsvFile(String csvFile) {
+        this.csvFile = csvFile;
+    }
+
+    public String getBatchRows() {
+        return batchRows;
+    }
+
+    public void setBatchRows(String batchRows) {
+        this.batchRows = batchRows;
+    }
+
+    public String getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(String workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public String getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(String maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public String getProgressFile() {
+        return progressFile;
+    }
+
+    public void setProgressFile(String progressFile) {
+        this.progressFile = progressFile;
+    }
+
+    public String getReportInterval() {
+        return reportInterval;
+    }
+
+    public void setReportInterval(String reportInterval) {
+        this.reportInterval = reportInterval;
+    }
+
+}
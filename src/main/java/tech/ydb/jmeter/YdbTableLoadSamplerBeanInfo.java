@@ -0,0 +1,76 @@
+package tech.ydb.jmeter;
+
+import java.beans.PropertyDescriptor;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+import org.apache.jmeter.testbeans.gui.TypeEditor;
+
+public class YdbTableLoadSamplerBeanInfo extends BeanInfoSupport {
+
+    public YdbTableLoadSamplerBeanInfo() {
+        super(YdbTableLoadSampler.class);
+
+        createPropertyGroup("varName", new String[] { "dataSource" });
+
+        createPropertyGroup("table", new String[] {
+            "tablePath", "columnNames", "columnTypes", "queryTimeout" });
+
+        createPropertyGroup("source", new String[] {
+            "rowValues", "rowCount", "csvFile" });
+
+        createPropertyGroup("load", new String[] {
+            "batchRows", "workerThreads", "maxInFlight", "progressFile", "reportInterval" });
+
+        PropertyDescriptor p = property("dataSource");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("tablePath");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("columnNames");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("columnTypes");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("queryTimeout");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("rowValues");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("rowCount");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("csvFile", TypeEditor.FileEditor);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("batchRows");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "1000");
+
+        p = property("workerThreads");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("maxInFlight");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("progressFile", TypeEditor.FileEditor);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("reportInterval");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "10");
+    }
+}
@@ -0,0 +1,166 @@
+package tech.ydb.jmeter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.commons.lang3.StringUtils;
+
+import org.apache.jmeter.control.GenericController;
+import org.apache.jmeter.control.NextIsNullException;
+import org.apache.jmeter.gui.TestElementMetadata;
+import org.apache.jmeter.samplers.Sampler;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.ThreadListener;
+
+import tech.ydb.core.StatusCode;
+
+/**
+ * Controller which runs its children as a single interactive transaction.
+ *
+ * The data queries executed over the configured data source share the pinned session
+ * and the transaction, which is begun by the first statement and committed
+ * either inline by the statement marked to commit, or at the end of the children.
+ * When a statement or the commit fails with a retryable status (like ABORTED),
+ * the remaining children are skipped, the transaction is rolled back and the children are run again,
+ * up to the configured number of retries.
+ *
+ * @author zinal
+ */
+@TestElementMetadata(labelResource = "displayName")
+public class YdbTransactionController extends GenericController implements TestBean, ThreadListener {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOG = LoggerFactory.getLogger(YdbTransactionController.class);
+
+    private static final String DATA_SOURCE = "dataSource";
+    private static final String TX_TYPE = "txType";
+    private static final String RETRY_LIMIT = "retryLimit";
+
+    private transient YdbTransactionState state;
+    private transient int attempt;
+
+    public YdbTransactionController() {
+    }
+
+    @Override
+    public Sampler next() {
+        if (isFirst() && state == null) {
+            beginUnit();
+        }
+        if (state != null && state.isFailed()) {
+            // Skip the remaining children of the failed attempt
+            current = subControllersAndSamplers.size();
+        }
+        return super.next();
+    }
+
+    @Override
+    protected Sampler nextIsNull() throws NextIsNullException {
+        if (state != null) {
+            if (! state.isFailed()) {
+                state.commit();
+            }
+            if (state.isFailed()) {
+                final StatusCode code = state.getFailure();
+                state.rollback();
+                if (code.isRetryable(false) && attempt < getIntegerRetryLimit()) {
+                    attempt += 1;
+                    LOG.debug("Transaction [{}] failed with status {}, retry #{}", getName(), code, attempt);
+                    state.restart();
+                    resetCurrent();
+                    initializeSubControllers();
+                    return next();
+                }
+                LOG.debug("Transaction [{}] failed with status {} after {} retries", getName(), code, attempt);
+            }
+            endUnit();
+        }
+        return super.nextIsNull();
+    }
+
+    private void beginUnit() {
+        attempt = 0;
+        final String dataSource = getDataSource();
+        if (StringUtils.isBlank(dataSource)) {
+            LOG.warn("Name for DataSoure must not be empty in {}", getName());
+            return;
+        }
+        final YdbTransactionState ts = new YdbTransactionState(dataSource.trim(),
+                AbstractYdbTestElement.SNAPSHOTRO.equalsIgnoreCase(getTxType()));
+        if (YdbTransactionState.register(ts)) {
+            state = ts;
+        } else {
+            // Nested into the transaction over the same data source, which is reused
+            LOG.debug("Transaction [{}] joins the outer transaction over {}", getName(), dataSource);
+        }
+    }
+
+    private void endUnit() {
+        if (state != null) {
+            state.rollback();
+            state.releaseSession();
+            YdbTransactionState.unregister(state);
+            state = null;
+        }
+        attempt = 0;
+    }
+
+    @Override
+    public void threadStarted() {
+    }
+
+    @Override
+    public void threadFinished() {
+        endUnit();
+    }
+
+    /**
+     * @return the integer representation of retryLimit
+     */
+    public int getIntegerRetryLimit() {
+        return YdbUtils.parseInt(getRetryLimit(), 10);
+    }
+
+    /**
+     * @return the name of the data source variable
+     */
+    public String getDataSource() {
+        return getPropertyAsString(DATA_SOURCE);
+    }
+
+    /**
+     * @param dataSource the name of the data source variable
+     */
+    public void setDataSource(String dataSource) {
+        setProperty(DATA_SOURCE, dataSource);
+    }
+
+    /**
+     * @return the transaction mode
+     */
+    public String getTxType() {
+        return getPropertyAsString(TX_TYPE);
+    }
+
+    /**
+     * @param txType the transaction mode
+     */
+    public void setTxType(String txType) {
+        setProperty(TX_TYPE, txType);
+    }
+
+    /**
+     * @return the maximum number of retries of the whole transaction
+     */
+    public String getRetryLimit() {
+        return getPropertyAsString(RETRY_LIMIT);
+    }
+
+    /**
+     * @param retryLimit the maximum number of retries of the whole transaction
+     */
+    public void setRetryLimit(String retryLimit) {
+        setProperty(RETRY_LIMIT, retryLimit);
+    }
+
+}
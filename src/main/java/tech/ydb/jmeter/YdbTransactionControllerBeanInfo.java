@@ -0,0 +1,33 @@
+package tech.ydb.jmeter;
+
+import java.beans.PropertyDescriptor;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+
+public class YdbTransactionControllerBeanInfo extends BeanInfoSupport {
+
+    public YdbTransactionControllerBeanInfo() {
+        super(YdbTransactionController.class);
+
+        createPropertyGroup("varName", new String[] { "dataSource" });
+
+        createPropertyGroup("transaction", new String[] { "txType", "retryLimit" });
+
+        PropertyDescriptor p = property("dataSource");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("txType");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, AbstractYdbTestElement.SERIALIZABLERW);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(TAGS,new String[]{
+                AbstractYdbTestElement.SERIALIZABLERW,
+                AbstractYdbTestElement.SNAPSHOTRO
+                });
+
+        p = property("retryLimit");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "10");
+    }
+}
@@ -0,0 +1,185 @@
+package tech.ydb.jmeter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.table.Session;
+import tech.ydb.table.query.DataQueryResult;
+import tech.ydb.table.settings.CommitTxSettings;
+import tech.ydb.table.settings.RollbackTxSettings;
+import tech.ydb.table.transaction.TxControl;
+
+/**
+ * Interactive transaction opened by {@link YdbTransactionController} for the JMeter thread.
+ * The data queries executed over the same data source within the controller
+ * use the pinned session and the open transaction instead of the retry context.
+ *
+ * The state is only accessed from the owning JMeter thread.
+ *
+ * @author zinal
+ */
+public class YdbTransactionState {
+
+    private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(YdbTransactionState.class);
+
+    private static final ThreadLocal<Map<String, YdbTransactionState>> CURRENT =
+            ThreadLocal.withInitial(HashMap::new);
+    private static final Duration SESSION_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String dataSource;
+    private final boolean snapshot;
+    private YdbConnection conn;
+    private Session session;
+    private String txId;
+    private StatusCode failure;
+
+    YdbTransactionState(String dataSource, boolean snapshot) {
+        this.dataSource = dataSource;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @param dataSource name of the data source
+     * @return the transaction open in the current thread, or null
+     */
+    public static YdbTransactionState current(String dataSource) {
+        return CURRENT.get().get(dataSource);
+    }
+
+    static boolean register(YdbTransactionState state) {
+        return CURRENT.get().putIfAbsent(state.dataSource, state) == null;
+    }
+
+    static void unregister(YdbTransactionState state) {
+        CURRENT.get().remove(state.dataSource, state);
+    }
+
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    public String getTxId() {
+        return txId;
+    }
+
+    /**
+     * @return the status of the failed statement, or null if all statements succeeded
+     */
+    public StatusCode getFailure() {
+        return failure;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Execute the data query within the transaction.
+     * The first statement begins the transaction, the following ones continue it,
+     * and the statement with the commit flag set commits it.
+     *
+     * @param conn connection of the data source
+     * @param commit true to commit the transaction along with the statement
+     * @param fn the data query call
+     * @return the future data query result
+     */
+    public CompletableFuture<Result<DataQueryResult>> execute(YdbConnection conn, boolean commit,
+            BiFunction<Session, TxControl<?>, CompletableFuture<Result<DataQueryResult>>> fn) {
+        // The session stays pinned even if the data source spreads the requests over several transports
+        if (session == null) {
+            Result<Session> rs = conn.getTableClient().createSession(SESSION_TIMEOUT).join();
+            if (! rs.isSuccess()) {
+                failure = rs.getStatus().getCode();
+                return CompletableFuture.completedFuture(Result.fail(rs.getStatus()));
+            }
+            this.conn = conn;
+            this.session = rs.getValue();
+        }
+        final TxControl<?> txc;
+        if (txId == null) {
+            txc = (snapshot ? TxControl.snapshotRo() : TxControl.serializableRw()).setCommitTx(commit);
+        } else {
+            txc = TxControl.id(txId).setCommitTx(commit);
+        }
+        return fn.apply(session, txc).whenComplete((res, ex) -> {
+            if (ex != null) {
+                failure = StatusCode.CLIENT_INTERNAL_ERROR;
+            } else if (! res.isSuccess()) {
+                failure = res.getStatus().getCode();
+                // The server has already rolled back the transaction
+                txId = null;
+            } else {
+                txId = commit ? null : res.getValue().getTxId();
+            }
+        });
+    }
+
+    /**
+     * Commit the open transaction, if any.
+     *
+     * @return the commit status
+     */
+    Status commit() {
+        if (txId == null || session == null) {
+            return Status.SUCCESS;
+        }
+        final String id = txId;
+        txId = null;
+        Status status = session.commitTransaction(id, new CommitTxSettings()).join();
+        if (! status.isSuccess()) {
+            failure = status.getCode();
+        }
+        return status;
+    }
+
+    /**
+     * Roll back the open transaction, if any, ignoring the errors.
+     */
+    void rollback() {
+        if (txId == null || session == null) {
+            return;
+        }
+        final String id = txId;
+        txId = null;
+        try {
+            Status status = session.rollbackTransaction(id, new RollbackTxSettings()).join();
+            if (! status.isSuccess()) {
+                LOG.debug("Rollback of transaction {} failed: {}", id, status);
+            }
+        } catch (Exception ex) {
+            LOG.debug("Rollback of transaction {} failed", id, ex);
+        }
+    }
+
+    /**
+     * Prepare for the next attempt of the transaction.
+     * The session is replaced if the failure was related to it.
+     */
+    void restart() {
+        if (failure == StatusCode.BAD_SESSION || failure == StatusCode.SESSION_EXPIRED
+                || failure == StatusCode.SESSION_BUSY || (failure != null && failure.isTransportError())) {
+            releaseSession();
+        }
+        txId = null;
+        failure = null;
+    }
+
+    /**
+     * Return the pinned session to the pool.
+     */
+    void releaseSession() {
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+        conn = null;
+        txId = null;
+    }
+
+}
@@ -1,5 +1,12 @@
 package tech.ydb.jmeter;
 
+import tech.ydb.core.Status;
+import tech.ydb.core.UnexpectedResultException;
+import tech.ydb.table.values.OptionalValue;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.Value;
+
 /**
  *
  * @author zinal
@@ -26,4 +33,117 @@ public class YdbUtils {
         return sb.toString();
     }
 
+    /**
+     * The response code for the failed request, which is the name of the final YDB status code
+     * when available, and "000" otherwise.
+     *
+     * @param ex the failure
+     * @return response code
+     */
+    public static String responseCode(Throwable ex) {
+        while (ex != null) {
+            if (ex instanceof UnexpectedResultException) {
+                Status status = ((UnexpectedResultException) ex).getStatus();
+                if (status != null && status.getCode() != null) {
+                    return status.getCode().name();
+                }
+            }
+            ex = ex.getCause();
+        }
+        return "000";
+    }
+
+    /**
+     * Combine the connection information with the extra header lines into the response headers.
+     *
+     * @param connectionInfo connection information
+     * @param extraHeaders extra header lines like the retry trace, may be empty
+     * @return response headers
+     */
+    public static String responseHeaders(String connectionInfo, String extraHeaders) {
+        if (extraHeaders == null || extraHeaders.isEmpty()) {
+            return connectionInfo;
+        }
+        return connectionInfo + "\n" + extraHeaders;
+    }
+
+    public static int parseInt(String value, int defval) {
+        if (value == null || value.trim().length() == 0) {
+            return defval;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException nfe) {
+            return defval;
+        }
+    }
+
+    public static long parseLong(String value, long defval) {
+        if (value == null || value.trim().length() == 0) {
+            return defval;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException nfe) {
+            return defval;
+        }
+    }
+
+    public static double parseDouble(String value, double defval) {
+        if (value == null || value.trim().length() == 0) {
+            return defval;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException nfe) {
+            return defval;
+        }
+    }
+
+    /**
+     * Approximate size of the value in the request, computed without building its protobuf form.
+     * The text length is counted in characters, so the multi-byte text is underestimated.
+     *
+     * @param value YDB value
+     * @return estimated size in bytes
+     */
+    public static long estimateSize(Value<?> value) {
+        switch (value.getType().getKind()) {
+            case OPTIONAL: {
+                OptionalValue ov = value.asOptional();
+                return ov.isPresent() ? estimateSize(ov.get()) : 2L;
+            }
+            case STRUCT: {
+                StructValue sv = value.asStruct();
+                long size = 2L;
+                for (int i = 0; i < sv.getMembersCount(); ++i) {
+                    size += estimateSize(sv.getMemberValue(i));
+                }
+                return size;
+            }
+            case PRIMITIVE:
+                return estimatePrimitive(value.asData());
+            default:
+                return 16L;
+        }
+    }
+
+    private static long estimatePrimitive(PrimitiveValue pv) {
+        switch (pv.getType()) {
+            case Text:
+                return 2L + pv.getText().length();
+            case Json:
+                return 2L + pv.getJson().length();
+            case JsonDocument:
+                return 2L + pv.getJsonDocument().length();
+            case Bytes:
+            case Yson:
+                return 2L + pv.getBytesUnsafe().length;
+            case Uuid:
+                return 18L;
+            default:
+                return 10L;
+        }
+    }
+
 }
@@ -5,6 +5,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.UUID;
 import java.math.BigDecimal;
 import tech.ydb.table.values.DecimalType;
 import tech.ydb.table.values.DecimalValue;
@@ -21,6 +22,16 @@ import tech.ydb.table.values.Value;
 public class YdbValueConv {
 
     public static Value<?> convert(String type, String value) {
+        return lookup(type).convert(value);
+    }
+
+    /**
+     * Find the convertor for the type name, to be used for multiple values.
+     *
+     * @param type YDB type name, with the question sign at the end for optional types
+     * @return Convertor for the specified type
+     */
+    public static TypedConv lookup(String type) {
         boolean optional = false;
         if (type.endsWith("?")) {
             optional = true;
@@ -30,7 +41,7 @@ public class YdbValueConv {
         if (conv==null) {
             throw new UnsupportedOperationException("Unsupported YDB data type: " + type);
         }
-        return conv.convert(value, optional);
+        return new TypedConv(conv, optional);
     }
 
     public static String convert(Value<?> value) {
@@ -109,15 +120,107 @@ public class YdbValueConv {
         reg(new ConvBytes());
         reg(new ConvBase64());
         reg(new ConvDecimal());
+        reg(new ConvUuid());
     }
 
     private static void reg(Conv conv) {
         HANDLERS.put(conv.name().toLowerCase(), conv);
     }
 
+    /**
+     * Text-to-value convertor bound to the specific data type.
+     */
+    public static final class TypedConv {
+        private final Conv conv;
+        private final boolean optional;
+
+        private TypedConv(Conv conv, boolean optional) {
+            this.conv = conv;
+            this.optional = optional;
+        }
+
+        public boolean isOptional() {
+            return optional;
+        }
+
+        /**
+         * @return YDB type name, without the optional mark
+         */
+        public String getTypeName() {
+            return conv.name();
+        }
+
+        public Value<?> convert(String value) {
+            return conv.convert(value, optional);
+        }
+
+        /**
+         * Build the value from the number, without the text round-trip for the numeric types.
+         *
+         * @param value the number
+         * @return YDB value
+         */
+        public Value<?> fromLong(long value) {
+            Value<?> v = conv.fromLong(value);
+            return optional ? v.makeOptional() : v;
+        }
+
+        /**
+         * Build the value from the bytes, directly for the Bytes type.
+         *
+         * @param value the bytes, owned by the value afterwards
+         * @return YDB value
+         */
+        public Value<?> fromBytes(byte[] value) {
+            Value<?> v = conv.fromBytes(value);
+            return optional ? v.makeOptional() : v;
+        }
+
+        /**
+         * Build the value from the UUID, directly for the Uuid type.
+         *
+         * @param value the UUID
+         * @return YDB value
+         */
+        public Value<?> fromUuid(UUID value) {
+            Value<?> v = conv.fromUuid(value);
+            return optional ? v.makeOptional() : v;
+        }
+
+        /**
+         * Check that the numbers of the generator can be converted to the type.
+         *
+         * @param min minimal number
+         * @param max maximal number
+         * @throws IllegalArgumentException if the range does not fit the type
+         */
+        public void checkRange(long min, long max) {
+            if (! conv.fitsRange(min, max)) {
+                throw new IllegalArgumentException("Generator range " + min + ".." + max
+                        + " does not fit the type " + conv.name());
+            }
+        }
+    }
+
     private static interface Conv {
         String name();
         Value<?> convert(String value, boolean optional);
+
+        default Value<?> fromLong(long value) {
+            return convert(Long.toString(value), false);
+        }
+
+        default Value<?> fromBytes(byte[] value) {
+            return convert(new String(value, StandardCharsets.UTF_8), false);
+        }
+
+        default Value<?> fromUuid(UUID value) {
+            return convert(value.toString(), false);
+        }
+
+        default boolean fitsRange(long min, long max) {
+            return true;
+        }
     }
 
     private static abstract class ConvNum implements Conv {
@@ -182,6 +285,14 @@ public class YdbValueConv {
         public Value<?> convertNum(String value) {
             return PrimitiveValue.newInt32(Integer.parseInt(value));
         }
+        @Override
+        public Value<?> fromLong(long value) {
+            return PrimitiveValue.newInt32(Math.toIntExact(value));
+        }
+        @Override
+        public boolean fitsRange(long min, long max) {
+            return min >= Integer.MIN_VALUE && max <= Integer.MAX_VALUE;
+        }
     }
 
     private static class ConvUint32 extends ConvNum {
@@ -192,6 +303,14 @@ public class YdbValueConv {
         public Value<?> convertNum(String value) {
             return PrimitiveValue.newUint32(Long.parseLong(value));
         }
+        @Override
+        public Value<?> fromLong(long value) {
+            return PrimitiveValue.newUint32(value);
+        }
+        @Override
+        public boolean fitsRange(long min, long max) {
+            return min >= 0L && max <= 0xFFFFFFFFL;
+        }
     }
 
     private static class ConvInt64 extends ConvNum {
@@ -202,6 +321,10 @@ public class YdbValueConv {
         public Value<?> convertNum(String value) {
             return PrimitiveValue.newInt64(Long.parseLong(value));
         }
+        @Override
+        public Value<?> fromLong(long value) {
+            return PrimitiveValue.newInt64(value);
+        }
     }
 
     private static class ConvUint64 extends ConvNum {
@@ -212,6 +335,14 @@ public class YdbValueConv {
         public Value<?> convertNum(String value) {
             return PrimitiveValue.newUint64(Long.parseLong(value));
         }
+        @Override
+        public Value<?> fromLong(long value) {
+            return PrimitiveValue.newUint64(value);
+        }
+        @Override
+        public boolean fitsRange(long min, long max) {
+            return min >= 0L;
+        }
     }
 
     private static class ConvFloat extends ConvNum {
@@ -222,6 +353,10 @@ public class YdbValueConv {
         public Value<?> convertNum(String value) {
             return PrimitiveValue.newFloat(Float.parseFloat(value));
         }
+        @Override
+        public Value<?> fromLong(long value) {
+            return PrimitiveValue.newFloat(value);
+        }
     }
 
     private static class ConvDouble extends ConvNum {
@@ -232,6 +367,10 @@ public class YdbValueConv {
         public Value<?> convertNum(String value) {
             return PrimitiveValue.newDouble(Double.parseDouble(value));
         }
+        @Override
+        public Value<?> fromLong(long value) {
+            return PrimitiveValue.newDouble(value);
+        }
     }
 
     private static class ConvDecimal extends ConvNum {
@@ -274,6 +413,20 @@ public class YdbValueConv {
         }
     }
 
+    private static class ConvUuid extends ConvNum {
+        public ConvUuid() {
+            super("Uuid", PrimitiveType.Uuid);
+        }
+        @Override
+        public Value<?> convertNum(String value) {
+            return PrimitiveValue.newUuid(value);
+        }
+        @Override
+        public Value<?> fromUuid(UUID value) {
+            return PrimitiveValue.newUuid(value);
+        }
+    }
+
     private static abstract class ConvTextBase implements Conv {
         private final String name;
         private final OptionalType otype;
@@ -331,6 +484,11 @@ public class YdbValueConv {
         protected Value<?> textConv(String value) {
             return PrimitiveValue.newBytes(value.getBytes(StandardCharsets.UTF_8));
         }
+
+        @Override
+        public Value<?> fromBytes(byte[] value) {
+            return PrimitiveValue.newBytesOwn(value);
+        }
     }
 
     private static class ConvBase64 extends ConvTextBase {
@@ -342,6 +500,11 @@ public class YdbValueConv {
         protected Value<?> textConv(String value) {
             return PrimitiveValue.newBytes(java.util.Base64.getUrlDecoder().decode(value));
         }
+
+        @Override
+        public Value<?> fromBytes(byte[] value) {
+            return PrimitiveValue.newBytesOwn(value);
+        }
     }
 
 }
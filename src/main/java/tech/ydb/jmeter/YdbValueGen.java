@@ -0,0 +1,419 @@
+package tech.ydb.jmeter;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import tech.ydb.table.values.Value;
+
+/**
+ * Generators of the query parameter values, specified in the parameter values
+ * as {@code @name(arguments)} instead of the literal value:
+ * <ul>
+ * <li>{@code @uniform(min,max)} - uniformly distributed integers in the inclusive range;</li>
+ * <li>{@code @zipfian(n[,theta])} - integers from 1 to n with the Zipf distribution,
+ *   1 being the most popular, theta defaults to 0.99;</li>
+ * <li>{@code @zipfianScrambled(n[,theta])} - the same distribution with the popular values
+ *   spread over the whole range;</li>
+ * <li>{@code @hotspot(min,max[,hotSet[,hotOps]])} - the fraction hotOps (0.8) of values
+ *   from the first fraction hotSet (0.2) of the range, the rest from the remaining part;</li>
+ * <li>{@code @sequential(start[,step])} - the sequence of integers, separate for each thread;</li>
+ * <li>{@code @row([start])} - the row number plus start (1 by default), counted by the parameter binder,
+ *   or assigned by the table loader;</li>
+ * <li>{@code @key(dataSource[,order[,space]])} - unique keys from the allocator of the data source,
+ *   see {@link YdbKeyAllocator}, with the order {@code sequential} (default), {@code shuffled}
+ *   or {@code bitreversed}, and the optional key space name;</li>
+ * <li>{@code @uuid()} - random UUID, for the Uuid type or in the text form;</li>
+ * <li>{@code @randomBytes(len)} - random bytes, or alphanumeric characters for the Text type.</li>
+ * </ul>
+ * The numbers are converted to the parameter type directly, without the text representation,
+ * and their range is checked against the parameter type with {@link #checkRange(YdbValueConv.TypedConv)}.
+ *
+ * Instances keep their random state and are not thread safe, each parameter binder owns its generators.
+ *
+ * @author zinal
+ */
+public abstract class YdbValueGen {
+
+    private static final Pattern SPEC = Pattern.compile("^@([A-Za-z]+)\\((.*)\\)$");
+    private static final byte[] ALNUM =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".getBytes();
+
+    protected final SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+
+    /**
+     * Generate the next value.
+     *
+     * @param conv convertor for the parameter type
+     * @return YDB value
+     */
+    public abstract Value<?> next(YdbValueConv.TypedConv conv);
+
+    /**
+     * Check that the generated values fit the parameter type, before the first value is generated.
+     *
+     * @param conv convertor for the parameter type
+     * @throws IllegalArgumentException if the values do not fit the type
+     */
+    public void checkRange(YdbValueConv.TypedConv conv) {
+    }
+
+    /**
+     * @param value parameter value text
+     * @return true, if the text is the generator specification
+     */
+    public static boolean isSpec(String value) {
+        value = value.trim();
+        if (value.length() < 4 || value.charAt(0) != '@') {
+            return false;
+        }
+        Matcher m = SPEC.matcher(value);
+        return m.matches() && isKnown(m.group(1));
+    }
+
+    private static boolean isKnown(String name) {
+        switch (name) {
+            case "uniform":
+            case "zipfian":
+            case "zipfianScrambled":
+            case "hotspot":
+            case "sequential":
+            case "row":
+            case "key":
+            case "uuid":
+            case "randomBytes":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Build the generator from its specification.
+     *
+     * @param spec generator specification, like {@code @uniform(1,1000)}
+     * @return the new generator
+     */
+    public static YdbValueGen parse(String spec) {
+        Matcher m = SPEC.matcher(spec.trim());
+        if (! m.matches()) {
+            throw new IllegalArgumentException("Illegal generator: " + spec);
+        }
+        final String name = m.group(1);
+        final String[] args = m.group(2).trim().isEmpty() ? new String[0] : m.group(2).split(",");
+        switch (name) {
+            case "uniform":
+                checkArgs(spec, args, 2, 2);
+                return new Uniform(parseLong(args[0]), parseLong(args[1]));
+            case "zipfian":
+            case "zipfianScrambled":
+                checkArgs(spec, args, 1, 2);
+                return new Zipfian(parseLong(args[0]),
+                        (args.length > 1) ? Double.parseDouble(args[1].trim()) : Zipfian.DEFAULT_THETA,
+                        "zipfianScrambled".equals(name));
+            case "hotspot":
+                checkArgs(spec, args, 2, 4);
+                return new Hotspot(parseLong(args[0]), parseLong(args[1]),
+                        (args.length > 2) ? Double.parseDouble(args[2].trim()) : 0.2,
+                        (args.length > 3) ? Double.parseDouble(args[3].trim()) : 0.8);
+            case "sequential":
+                checkArgs(spec, args, 1, 2);
+                return new Sequential(parseLong(args[0]), (args.length > 1) ? parseLong(args[1]) : 1L);
+            case "row":
+                checkArgs(spec, args, 0, 1);
+                return new RowNumber((args.length > 0) ? parseLong(args[0]) : 1L);
+            case "key":
+                checkArgs(spec, args, 1, 3);
+                return new Key(args[0].trim(),
+                        (args.length > 1) ? args[1].trim() : YdbKeyAllocator.ORDER_SEQUENTIAL,
+                        (args.length > 2) ? args[2].trim() : "default");
+            case "uuid":
+                checkArgs(spec, args, 0, 0);
+                return new Uuid();
+            case "randomBytes":
+                checkArgs(spec, args, 1, 1);
+                return new RandomBytes((int) parseLong(args[0]));
+            default:
+                throw new IllegalArgumentException("Unknown generator: " + spec);
+        }
+    }
+
+    private static void checkArgs(String spec, String[] args, int min, int max) {
+        if (args.length < min || args.length > max) {
+            throw new IllegalArgumentException("Illegal number of arguments in generator " + spec);
+        }
+    }
+
+    /**
+     * Parse the integer, allowing the exponent form like 1e9.
+     */
+    static long parseLong(String value) {
+        value = value.trim();
+        if (value.indexOf('e') >= 0 || value.indexOf('E') >= 0 || value.indexOf('.') >= 0) {
+            return (long) Double.parseDouble(value);
+        }
+        return Long.parseLong(value);
+    }
+
+    /**
+     * Spread the values over the 64-bit range (the finalizer of MurmurHash3).
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    static final class Uniform extends YdbValueGen {
+        private final long min;
+        private final long bound;
+
+        Uniform(long min, long max) {
+            if (max < min || max == Long.MAX_VALUE) {
+                throw new IllegalArgumentException("Illegal range for uniform: " + min + ".." + max);
+            }
+            this.min = min;
+            this.bound = max + 1L;
+        }
+
+        @Override
+        public void checkRange(YdbValueConv.TypedConv conv) {
+            conv.checkRange(min, bound - 1L);
+        }
+
+        long nextLong() {
+            return random.nextLong(min, bound);
+        }
+
+        @Override
+        public Value<?> next(YdbValueConv.TypedConv conv) {
+            return conv.fromLong(nextLong());
+        }
+    }
+
+    /**
+     * Zipf distribution with the algorithm from "Quickly Generating Billion-Record Synthetic Databases"
+     * by Gray et al., as used in YCSB.
+     */
+    static final class Zipfian extends YdbValueGen {
+        static final double DEFAULT_THETA = 0.99;
+        // The normalization constants are expensive for the large ranges, and shared by all threads
+        private static final ConcurrentHashMap<String, Double> ZETA_CACHE = new ConcurrentHashMap<>();
+        private static final long ZETA_EXACT = 10000L;
+
+        private final long items;
+        private final boolean scrambled;
+        private final double alpha;
+        private final double zetan;
+        private final double eta;
+        private final double half;
+
+        Zipfian(long items, double theta, boolean scrambled) {
+            if (items < 2L || theta <= 0.0 || theta >= 1.0) {
+                throw new IllegalArgumentException("Illegal zipfian parameters: " + items + ", " + theta);
+            }
+            this.items = items;
+            this.scrambled = scrambled;
+            this.alpha = 1.0 / (1.0 - theta);
+            this.zetan = ZETA_CACHE.computeIfAbsent(items + "/" + theta, k -> zeta(items, theta));
+            final double zeta2 = zeta(2L, theta);
+            this.eta = (1.0 - Math.pow(2.0 / items, 1.0 - theta)) / (1.0 - zeta2 / zetan);
+            this.half = 1.0 + Math.pow(0.5, theta);
+        }
+
+        @Override
+        public void checkRange(YdbValueConv.TypedConv conv) {
+            conv.checkRange(1L, items);
+        }
+
+        /**
+         * Sum of 1/i^theta for i from 1 to n, with the Euler-Maclaurin approximation
+         * for the tail of the large ranges.
+         */
+        static double zeta(long n, double theta) {
+            final long exact = Math.min(n, ZETA_EXACT);
+            double sum = 0.0;
+            for (long i = 1; i <= exact; ++i) {
+                sum += 1.0 / Math.pow(i, theta);
+            }
+            if (n > exact) {
+                final double a = exact + 1;
+                final double b = n;
+                final double e = 1.0 - theta;
+                sum += (Math.pow(b, e) - Math.pow(a, e)) / e
+                        + (Math.pow(a, -theta) + Math.pow(b, -theta)) / 2.0
+                        + theta * (Math.pow(a, -theta - 1.0) - Math.pow(b, -theta - 1.0)) / 12.0;
+            }
+            return sum;
+        }
+
+        /**
+         * @return the item number from 0 to n-1, 0 being the most popular
+         */
+        long nextRank() {
+            final double u = random.nextDouble();
+            final double uz = u * zetan;
+            if (uz < 1.0) {
+                return 0L;
+            }
+            if (uz < half) {
+                return 1L;
+            }
+            long ret = (long) (items * Math.pow(eta * u - eta + 1.0, alpha));
+            return Math.min(ret, items - 1L);
+        }
+
+        long nextLong() {
+            long rank = nextRank();
+            if (scrambled) {
+                rank = Math.floorMod(mix64(rank), items);
+            }
+            return rank + 1L;
+        }
+
+        @Override
+        public Value<?> next(YdbValueConv.TypedConv conv) {
+            return conv.fromLong(nextLong());
+        }
+    }
+
+    static final class Hotspot extends YdbValueGen {
+        private final long min;
+        private final long hotBound;
+        private final long max;
+        private final double hotOps;
+
+        Hotspot(long min, long max, double hotSet, double hotOps) {
+            if (max <= min || hotSet <= 0.0 || hotSet >= 1.0 || hotOps < 0.0 || hotOps > 1.0) {
+                throw new IllegalArgumentException("Illegal hotspot parameters");
+            }
+            this.min = min;
+            this.max = max;
+            this.hotBound = min + Math.max(1L, (long) ((max - min + 1L) * hotSet));
+            this.hotOps = hotOps;
+        }
+
+        @Override
+        public void checkRange(YdbValueConv.TypedConv conv) {
+            conv.checkRange(min, max);
+        }
+
+        long nextLong() {
+            if (random.nextDouble() < hotOps || hotBound > max) {
+                return random.nextLong(min, hotBound);
+            }
+            return random.nextLong(hotBound, max + 1L);
+        }
+
+        @Override
+        public Value<?> next(YdbValueConv.TypedConv conv) {
+            return conv.fromLong(nextLong());
+        }
+    }
+
+    static final class Sequential extends YdbValueGen {
+        private final long step;
+        private long current;
+
+        Sequential(long start, long step) {
+            this.current = start;
+            this.step = step;
+        }
+
+        @Override
+        public void checkRange(YdbValueConv.TypedConv conv) {
+            // The sequence is unbounded, only its start is known
+            conv.checkRange(current, current);
+        }
+
+        long nextLong() {
+            final long ret = current;
+            current += step;
+            return ret;
+        }
+
+        @Override
+        public Value<?> next(YdbValueConv.TypedConv conv) {
+            return conv.fromLong(nextLong());
+        }
+    }
+
+    static final class RowNumber extends YdbValueGen {
+        private final long start;
+        // Row number, set by the binder before each call
+        long row;
+
+        RowNumber(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public Value<?> next(YdbValueConv.TypedConv conv) {
+            return conv.fromLong(start + row);
+        }
+    }
+
+    static final class Key extends YdbValueGen {
+        private final YdbKeyAllocator.Range range;
+
+        Key(String dataSource, String order, String space) {
+            switch (order) {
+                case YdbKeyAllocator.ORDER_SEQUENTIAL:
+                case YdbKeyAllocator.ORDER_SHUFFLED:
+                case YdbKeyAllocator.ORDER_BITREVERSED:
+                    break;
+                default:
+                    throw new IllegalArgumentException("Illegal key order: " + order);
+            }
+            this.range = new YdbKeyAllocator.Range(dataSource, space, order);
+        }
+
+        @Override
+        public Value<?> next(YdbValueConv.TypedConv conv) {
+            return conv.fromLong(range.nextKey());
+        }
+    }
+
+    static final class Uuid extends YdbValueGen {
+        @Override
+        public Value<?> next(YdbValueConv.TypedConv conv) {
+            final long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+            final long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+            return conv.fromUuid(new UUID(msb, lsb));
+        }
+    }
+
+    static final class RandomBytes extends YdbValueGen {
+        private final int length;
+
+        RandomBytes(int length) {
+            if (length < 0) {
+                throw new IllegalArgumentException("Illegal length for randomBytes: " + length);
+            }
+            this.length = length;
+        }
+
+        @Override
+        public Value<?> next(YdbValueConv.TypedConv conv) {
+            final byte[] data = new byte[length];
+            if ("Text".equals(conv.getTypeName())) {
+                for (int i = 0; i < length; ++i) {
+                    data[i] = ALNUM[random.nextInt(ALNUM.length)];
+                }
+            } else {
+                for (int i = 0; i < length; i += 8) {
+                    long r = random.nextLong();
+                    for (int j = i; j < Math.min(length, i + 8); ++j) {
+                        data[j] = (byte) r;
+                        r >>>= 8;
+                    }
+                }
+            }
+            return conv.fromBytes(data);
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package tech.ydb.jmeter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import tech.ydb.core.Result;
+import tech.ydb.query.QuerySession;
+import tech.ydb.table.Session;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.transaction.TxControl;
+
+/**
+ * Warm-up of the freshly opened connection, performed before the samplers start.
+ * The sessions are created in parallel up to the pool limit, which also opens the channels
+ * to the nodes chosen by the balancer, and then the optional warm-up query is run
+ * for the configured number of executions or duration.
+ *
+ * @author zinal
+ */
+public class YdbWarmUp {
+
+    private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(YdbWarmUp.class);
+
+    private static final Duration SESSION_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String name;
+    private final YdbConnection conn;
+    private final int parallelism;
+
+    /**
+     * @param name data source name, for logging
+     * @param conn connection to warm up
+     * @param parallelism number of sessions created, and the number of concurrent warm-up queries
+     */
+    public YdbWarmUp(String name, YdbConnection conn, int parallelism) {
+        this.name = name;
+        this.conn = conn;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Create the sessions in both table and query service pools, and return them to the pools.
+     */
+    public void warmUpSessions() {
+        final long start = System.nanoTime();
+        final List<CompletableFuture<Result<Session>>> tableSessions = new ArrayList<>(parallelism);
+        final List<CompletableFuture<Result<QuerySession>>> querySessions = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; ++i) {
+            tableSessions.add(conn.getTableClient().createSession(SESSION_TIMEOUT));
+            querySessions.add(conn.getQueryClient().createSession(SESSION_TIMEOUT));
+        }
+        int created = 0;
+        int failed = 0;
+        // Sessions are held till all of them are created, so that the pools grow to the full size
+        for (CompletableFuture<Result<Session>> f : tableSessions) {
+            Result<Session> rs = f.join();
+            if (rs.isSuccess()) {
+                created += 1;
+            } else {
+                failed += 1;
+                LOG.warn("Warm-up session creation failed for {}: {}", name, rs.getStatus());
+            }
+        }
+        for (CompletableFuture<Result<QuerySession>> f : querySessions) {
+            Result<QuerySession> rs = f.join();
+            if (rs.isSuccess()) {
+                created += 1;
+            } else {
+                failed += 1;
+                LOG.warn("Warm-up session creation failed for {}: {}", name, rs.getStatus());
+            }
+        }
+        for (CompletableFuture<Result<Session>> f : tableSessions) {
+            Result<Session> rs = f.join();
+            if (rs.isSuccess()) {
+                rs.getValue().close();
+            }
+        }
+        for (CompletableFuture<Result<QuerySession>> f : querySessions) {
+            Result<QuerySession> rs = f.join();
+            if (rs.isSuccess()) {
+                rs.getValue().close();
+            }
+        }
+        LOG.info("Warm-up of {}: {} sessions created, {} failed in {} ms", name, created, failed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Run the warm-up query as DataQuery, with the parallelism of the session pool.
+     *
+     * @param query query text
+     * @param count maximum number of executions, 0 for no limit
+     * @param durationMillis maximum duration, 0 for no limit
+     */
+    public void warmUpQuery(String query, long count, long durationMillis) {
+        if (count <= 0L && durationMillis <= 0L) {
+            count = parallelism;
+        }
+        final long start = System.nanoTime();
+        final long deadline = (durationMillis > 0L)
+                ? start + TimeUnit.MILLISECONDS.toNanos(durationMillis) : Long.MAX_VALUE;
+        final Semaphore slots = new Semaphore(parallelism);
+        final LongAdder failures = new LongAdder();
+        final LongAdder totalMicros = new LongAdder();
+        final AtomicLong maxMicros = new AtomicLong();
+        final ExecuteDataQuerySettings settings = new ExecuteDataQuerySettings();
+        long issued = 0L;
+        try {
+            while ((count <= 0L || issued < count) && System.nanoTime() < deadline) {
+                slots.acquire();
+                issued += 1;
+                final long queryStart = System.nanoTime();
+                conn.getTableCtx().supplyResult(session -> session.executeDataQuery(query,
+                        TxControl.serializableRw().setCommitTx(true), Params.empty(), settings))
+                        .whenComplete((res, ex) -> {
+                            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - queryStart);
+                            totalMicros.add(micros);
+                            maxMicros.accumulateAndGet(micros, Math::max);
+                            if (ex != null || !res.isSuccess()) {
+                                failures.increment();
+                            }
+                            slots.release();
+                        });
+            }
+            slots.acquire(parallelism);
+        } catch (InterruptedException ix) {
+            Thread.currentThread().interrupt();
+        }
+        LOG.info("Warm-up of {}: {} queries, {} failed in {} ms, avg {} us, max {} us", name, issued,
+                failures.sum(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                totalMicros.sum() / Math.max(1L, issued), maxMicros.get());
+    }
+
+}
@@ -0,0 +1,124 @@
+package tech.ydb.jmeter;
+
+/**
+ * Workload preset: the operations with their weights and the default key distribution.
+ * The presets follow the YCSB core workloads A to F, plus the simple key-value mix
+ * and the TPC-C-like mix of new-order and payment transactions.
+ *
+ * @author zinal
+ */
+public final class YdbWorkload {
+
+    // Preset names (used to communicate with GUI)
+    // N.B. These must not be changed, as they are used in the JMX files
+    public static final String YCSB_A = "YCSB A";
+    public static final String YCSB_B = "YCSB B";
+    public static final String YCSB_C = "YCSB C";
+    public static final String YCSB_D = "YCSB D";
+    public static final String YCSB_E = "YCSB E";
+    public static final String YCSB_F = "YCSB F";
+    public static final String KEY_VALUE = "Key-Value";
+    public static final String TPCC = "TPC-C-like";
+
+    // Key distributions
+    public static final String DIST_DEFAULT = "Default";
+    public static final String DIST_UNIFORM = "Uniform";
+    public static final String DIST_ZIPFIAN = "Zipfian";
+    public static final String DIST_LATEST = "Latest";
+
+    public enum Op {
+        READ,
+        UPDATE,
+        INSERT,
+        SCAN,
+        READ_MODIFY_WRITE,
+        DELETE,
+        NEW_ORDER,
+        PAYMENT
+    }
+
+    private final String name;
+    private final Op[] ops;
+    private final double[] cumulative;
+    private final String distribution;
+
+    private YdbWorkload(String name, String distribution, Op[] ops, double[] weights) {
+        this.name = name;
+        this.distribution = distribution;
+        this.ops = ops;
+        this.cumulative = new double[weights.length];
+        double total = 0.0;
+        for (double w : weights) {
+            total += w;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < weights.length; ++i) {
+            sum += weights[i];
+            cumulative[i] = sum / total;
+        }
+    }
+
+    /**
+     * @param name preset name
+     * @return the workload preset
+     */
+    public static YdbWorkload forName(String name) {
+        switch (name) {
+            case YCSB_A:
+                return new YdbWorkload(name, DIST_ZIPFIAN,
+                        new Op[] { Op.READ, Op.UPDATE }, new double[] { 0.5, 0.5 });
+            case YCSB_B:
+                return new YdbWorkload(name, DIST_ZIPFIAN,
+                        new Op[] { Op.READ, Op.UPDATE }, new double[] { 0.95, 0.05 });
+            case YCSB_C:
+                return new YdbWorkload(name, DIST_ZIPFIAN,
+                        new Op[] { Op.READ }, new double[] { 1.0 });
+            case YCSB_D:
+                return new YdbWorkload(name, DIST_LATEST,
+                        new Op[] { Op.READ, Op.INSERT }, new double[] { 0.95, 0.05 });
+            case YCSB_E:
+                return new YdbWorkload(name, DIST_ZIPFIAN,
+                        new Op[] { Op.SCAN, Op.INSERT }, new double[] { 0.95, 0.05 });
+            case YCSB_F:
+                return new YdbWorkload(name, DIST_ZIPFIAN,
+                        new Op[] { Op.READ, Op.READ_MODIFY_WRITE }, new double[] { 0.5, 0.5 });
+            case KEY_VALUE:
+                return new YdbWorkload(name, DIST_UNIFORM,
+                        new Op[] { Op.READ, Op.UPDATE, Op.DELETE }, new double[] { 0.75, 0.2, 0.05 });
+            case TPCC:
+                // The ratio of new-order and payment in the standard TPC-C mix (45:43)
+                return new YdbWorkload(name, DIST_UNIFORM,
+                        new Op[] { Op.NEW_ORDER, Op.PAYMENT }, new double[] { 45.0, 43.0 });
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDistribution() {
+        return distribution;
+    }
+
+    public Op[] getOps() {
+        return ops.clone();
+    }
+
+    /**
+     * Weighted choice of the operation.
+     *
+     * @param u random number in the range [0, 1)
+     * @return the operation
+     */
+    public Op choose(double u) {
+        for (int i = 0; i < cumulative.length - 1; ++i) {
+            if (u < cumulative[i]) {
+                return ops[i];
+            }
+        }
+        return ops[ops.length - 1];
+    }
+
+}
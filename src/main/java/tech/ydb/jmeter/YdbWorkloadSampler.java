@@ -0,0 +1,438 @@
+package tech.ydb.jmeter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import org.apache.jmeter.gui.TestElementMetadata;
+import org.apache.jmeter.samplers.Entry;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.samplers.Sampler;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.testelement.ThreadListener;
+
+import tech.ydb.core.Result;
+import tech.ydb.table.query.DataQueryResult;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.transaction.TxControl;
+import tech.ydb.table.values.ListValue;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.Value;
+
+/**
+ * A sampler running the preset workload (see {@link YdbWorkload}) against the prepared tables.
+ *
+ * Each sample picks the operation by the weighted choice, and is labelled with the operation name.
+ * The query texts are built once per thread and kept in the server query cache,
+ * the parameters are built directly as YDB values.
+ *
+ * YCSB and key-value presets use the table {@code (id Uint64, field0 String, ..., PRIMARY KEY(id))}
+ * with the keys from 0 to the record count. The TPC-C-like preset uses the tables with the
+ * configured path prefix and the suffixes {@code _district}, {@code _customer}, {@code _stock}
+ * and {@code _orders}, with the composite TPC-C keys flattened into a single Uint64 column.
+ *
+ * @author zinal
+ */
+@TestElementMetadata(labelResource = "displayName")
+public class YdbWorkloadSampler extends AbstractTestElement
+        implements Sampler, TestBean, ThreadListener, TestStateListener {
+
+    private static final long serialVersionUID = 1L;
+
+    protected static final java.nio.charset.Charset CHARSET = AbstractYdbTestElement.CHARSET;
+
+    // TPC-C scale constants
+    static final int DISTRICTS = 10;
+    static final int CUSTOMERS = 3000;
+    static final int ITEMS = 100000;
+
+    private String dataSource = "";
+    private String workload = "";
+    private String tablePath = "";
+    private String recordCount = "";
+    private String fieldCount = "";
+    private String fieldLength = "";
+    private String requestDistribution = "";
+    private String maxScanLength = "";
+    private String queryTimeout = "";
+
+    // Per-thread state
+    private transient YdbWorkload preset;
+    private transient SplittableRandom random;
+    private transient YdbValueGen.Zipfian zipfian;
+    private transient YdbKeyAllocator.Range insertKeys;
+    private transient long lastInsertKey;
+    private transient String distribution;
+    private transient long records;
+    private transient int fields;
+    private transient int length;
+    private transient int scanLength;
+    private transient String qRead;
+    private transient String[] qUpdate;
+    private transient String qInsert;
+    private transient String qScan;
+    private transient String[] qReadModifyWrite;
+    private transient String qDelete;
+    private transient String qNewOrder;
+    private transient String qPayment;
+
+    public YdbWorkloadSampler() {
+    }
+
+    @Override
+    public SampleResult sample(Entry e) {
+        final SampleResult res = new SampleResult();
+        res.setSampleLabel(getName());
+        res.setDataType(SampleResult.TEXT);
+        res.setContentType("text/plain");
+        res.setDataEncoding(CHARSET.name());
+        res.setSuccessful(true);
+        res.setResponseMessageOK();
+        res.setResponseCodeOK();
+        res.sampleStart();
+        try {
+            if (preset == null || !preset.getName().equals(getWorkload())) {
+                init();
+            }
+            final YdbWorkload.Op op = preset.choose(random.nextDouble());
+            res.setSampleLabel(getName() + ": " + op.name());
+            final Params params = Params.create();
+            final String query = prepare(op, params);
+            res.setSamplerData("[" + op.name() + "] " + query);
+            if (StringUtils.isBlank(getDataSource())) {
+                throw new IllegalArgumentException("Name for DataSoure must not be empty in " + getName());
+            }
+            final YdbConnection conn;
+            try {
+                conn = YdbConfigElement.getConnection(getDataSource());
+            } finally {
+                res.connectEnd();
+            }
+            final ExecuteDataQuerySettings settings = makeSettings();
+            final YdbRetryHandler handler = new YdbRetryHandler(getName());
+            final Result<DataQueryResult> result = conn.track(() -> conn.getTableCtx().supplyResult(handler,
+                    session -> session.executeDataQuery(query, TxControl.serializableRw().setCommitTx(true),
+                            params, settings))).join();
+            res.latencyEnd();
+            final DataQueryResult dqr = result.getValue();
+            long rows = 0L;
+            for (int i = 0; i < dqr.getResultSetCount(); ++i) {
+                rows += dqr.getRowCount(i);
+            }
+            res.setResponseData(("** Rows: " + rows).getBytes(CHARSET));
+            res.setResponseHeaders(YdbUtils.responseHeaders(conn.getConnectionInfo(), handler.formatTrace()));
+            res.setURL(new YdbQueryResult(new byte[0], handler.getRetryCount()).makeURL());
+        } catch (Exception ex) {
+            fillError(res, (ex instanceof CompletionException && ex.getCause() != null)
+                    ? ex.getCause() : ex);
+        }
+        res.sampleEnd();
+        return res;
+    }
+
+    private void init() {
+        preset = YdbWorkload.forName(getWorkload());
+        random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        final boolean tpcc = YdbWorkload.TPCC.equals(preset.getName());
+        records = Math.max(tpcc ? 1L : 2L, YdbUtils.parseLong(getRecordCount(), tpcc ? 1L : 1000000L));
+        fields = Math.max(1, YdbUtils.parseInt(getFieldCount(), 10));
+        length = Math.max(0, YdbUtils.parseInt(getFieldLength(), 100));
+        scanLength = Math.max(1, YdbUtils.parseInt(getMaxScanLength(), 100));
+        distribution = getRequestDistribution();
+        if (StringUtils.isBlank(distribution) || YdbWorkload.DIST_DEFAULT.equals(distribution)) {
+            distribution = preset.getDistribution();
+        }
+        zipfian = (tpcc || YdbWorkload.DIST_UNIFORM.equals(distribution)) ? null
+                : new YdbValueGen.Zipfian(records, YdbValueGen.Zipfian.DEFAULT_THETA,
+                        YdbWorkload.DIST_ZIPFIAN.equals(distribution));
+        final String table = getTablePath().trim();
+        // The inserted keys follow the loaded ones, in the key space of the table
+        insertKeys = new YdbKeyAllocator.Range(getDataSource(), table, YdbKeyAllocator.ORDER_SEQUENTIAL);
+        lastInsertKey = records - 1L;
+        if (tpcc) {
+            buildTpccQueries(table);
+        } else {
+            buildKeyValueQueries(table);
+        }
+    }
+
+    private void buildKeyValueQueries(String table) {
+        final String t = "`" + table + "`";
+        qRead = "DECLARE $id AS Uint64;\nSELECT * FROM " + t + " WHERE id = $id;";
+        qUpdate = new String[fields];
+        qReadModifyWrite = new String[fields];
+        for (int i = 0; i < fields; ++i) {
+            final String upsert = "UPSERT INTO " + t + " (id, field" + i + ") VALUES ($id, $v);";
+            qUpdate[i] = "DECLARE $id AS Uint64; DECLARE $v AS String;\n" + upsert;
+            qReadModifyWrite[i] = "DECLARE $id AS Uint64; DECLARE $v AS String;\n"
+                    + "SELECT * FROM " + t + " WHERE id = $id;\n" + upsert;
+        }
+        final StringBuilder sb = new StringBuilder("DECLARE $id AS Uint64;");
+        for (int i = 0; i < fields; ++i) {
+            sb.append(" DECLARE $f").append(i).append(" AS String;");
+        }
+        sb.append("\nUPSERT INTO ").append(t).append(" (id");
+        for (int i = 0; i < fields; ++i) {
+            sb.append(", field").append(i);
+        }
+        sb.append(") VALUES ($id");
+        for (int i = 0; i < fields; ++i) {
+            sb.append(", $f").append(i);
+        }
+        qInsert = sb.append(");").toString();
+        qScan = "DECLARE $id AS Uint64; DECLARE $n AS Uint64;\n"
+                + "SELECT * FROM " + t + " WHERE id >= $id ORDER BY id LIMIT $n;";
+        qDelete = "DECLARE $id AS Uint64;\nDELETE FROM " + t + " WHERE id = $id;";
+    }
+
+    private void buildTpccQueries(String prefix) {
+        final String district = "`" + prefix + "_district`";
+        final String customer = "`" + prefix + "_customer`";
+        final String stock = "`" + prefix + "_stock`";
+        final String orders = "`" + prefix + "_orders`";
+        qNewOrder = "DECLARE $d AS Uint64; DECLARE $c AS Uint64;\n"
+                + "DECLARE $items AS List<Struct<id:Uint64,qty:Int32>>;\n"
+                + "$o = Unwrap((SELECT next_o_id FROM " + district + " WHERE id = $d), \"No district\");\n"
+                + "UPDATE " + district + " SET next_o_id = next_o_id + 1ul WHERE id = $d;\n"
+                + "UPSERT INTO " + stock + " SELECT s.id AS id, "
+                + "IF(s.quantity >= i.qty + 10, s.quantity - i.qty, s.quantity - i.qty + 91) AS quantity\n"
+                + "  FROM AS_TABLE($items) AS i INNER JOIN " + stock + " AS s ON s.id = i.id;\n"
+                + "UPSERT INTO " + orders + " (district_id, o_id, c_id, line_cnt) "
+                + "VALUES ($d, $o, $c, CAST(ListLength($items) AS Uint32));";
+        qPayment = "DECLARE $d AS Uint64; DECLARE $c AS Uint64; DECLARE $amount AS Double;\n"
+                + "UPDATE " + district + " SET ytd = ytd + $amount WHERE id = $d;\n"
+                + "UPDATE " + customer + " SET balance = balance - $amount, "
+                + "payment_cnt = payment_cnt + 1u WHERE id = $c;";
+    }
+
+    /**
+     * Choose the parameters of the operation.
+     *
+     * @return the query text
+     */
+    private String prepare(YdbWorkload.Op op, Params params) {
+        switch (op) {
+            case READ:
+                params.put("$id", PrimitiveValue.newUint64(nextKey()));
+                return qRead;
+            case UPDATE: {
+                params.put("$id", PrimitiveValue.newUint64(nextKey()));
+                params.put("$v", nextField());
+                return qUpdate[random.nextInt(fields)];
+            }
+            case READ_MODIFY_WRITE: {
+                params.put("$id", PrimitiveValue.newUint64(nextKey()));
+                params.put("$v", nextField());
+                return qReadModifyWrite[random.nextInt(fields)];
+            }
+            case INSERT:
+                lastInsertKey = records + insertKeys.nextKey();
+                params.put("$id", PrimitiveValue.newUint64(lastInsertKey));
+                for (int i = 0; i < fields; ++i) {
+                    params.put("$f" + i, nextField());
+                }
+                return qInsert;
+            case SCAN:
+                params.put("$id", PrimitiveValue.newUint64(nextKey()));
+                params.put("$n", PrimitiveValue.newUint64(1L + random.nextInt(scanLength)));
+                return qScan;
+            case DELETE:
+                params.put("$id", PrimitiveValue.newUint64(nextKey()));
+                return qDelete;
+            case NEW_ORDER:
+                return prepareNewOrder(params);
+            case PAYMENT: {
+                final long d = random.nextLong(records * DISTRICTS);
+                params.put("$d", PrimitiveValue.newUint64(d));
+                params.put("$c", PrimitiveValue.newUint64(d * CUSTOMERS + random.nextInt(CUSTOMERS)));
+                params.put("$amount", PrimitiveValue.newDouble(1.0 + random.nextInt(500000) / 100.0));
+                return qPayment;
+            }
+            default:
+                throw new IllegalStateException("Unsupported operation " + op);
+        }
+    }
+
+    private String prepareNewOrder(Params params) {
+        final long d = random.nextLong(records * DISTRICTS);
+        final long w = d / DISTRICTS;
+        params.put("$d", PrimitiveValue.newUint64(d));
+        params.put("$c", PrimitiveValue.newUint64(d * CUSTOMERS + random.nextInt(CUSTOMERS)));
+        // 5 to 15 distinct items of the same warehouse
+        final int count = 5 + random.nextInt(11);
+        final long[] items = new long[count];
+        final Value<?>[] lines = new Value<?>[count];
+        for (int i = 0; i < count; ++i) {
+            long item;
+            boolean dup;
+            do {
+                item = w * ITEMS + random.nextInt(ITEMS);
+                dup = false;
+                for (int j = 0; j < i && !dup; ++j) {
+                    dup = (items[j] == item);
+                }
+            } while (dup);
+            items[i] = item;
+            final Map<String, Value<?>> members = new HashMap<>();
+            members.put("id", PrimitiveValue.newUint64(item));
+            members.put("qty", PrimitiveValue.newInt32(1 + random.nextInt(10)));
+            lines[i] = StructValue.of(members);
+        }
+        params.put("$items", ListValue.of(lines));
+        return qNewOrder;
+    }
+
+    private long nextKey() {
+        if (zipfian == null) {
+            return random.nextLong(records);
+        }
+        if (YdbWorkload.DIST_LATEST.equals(distribution)) {
+            // The keys most recently inserted by this thread are the most popular
+            return Math.max(0L, lastInsertKey - zipfian.nextRank());
+        }
+        return zipfian.nextLong() - 1L;
+    }
+
+    private Value<?> nextField() {
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i += 8) {
+            long r = random.nextLong();
+            for (int j = i; j < Math.min(length, i + 8); ++j) {
+                data[j] = (byte) r;
+                r >>>= 8;
+            }
+        }
+        return PrimitiveValue.newBytesOwn(data);
+    }
+
+    private ExecuteDataQuerySettings makeSettings() {
+        ExecuteDataQuerySettings ret = new ExecuteDataQuerySettings();
+        int timeout = YdbUtils.parseInt(getQueryTimeout(), 0);
+        if (timeout <= 0) {
+            timeout = 3600;
+        }
+        ret.setCancelAfter(Duration.ofSeconds(timeout));
+        ret.setTimeout(Duration.ofSeconds(timeout+1));
+        // The query is kept in the server cache by default
+        return ret;
+    }
+
+    private static void fillError(SampleResult res, Throwable ex) {
+        res.setResponseMessage(YdbUtils.fullMessage(ex));
+        res.setResponseCode(YdbUtils.responseCode(ex));
+        res.setResponseData(
+                ObjectUtils.defaultIfNull(ex.getMessage(), "NO MESSAGE"),
+                res.getDataEncodingWithDefault());
+        res.setSuccessful(false);
+    }
+
+    @Override
+    public void threadStarted() {
+    }
+
+    @Override
+    public void threadFinished() {
+        preset = null;
+    }
+
+    @Override
+    public void testStarted() {
+    }
+
+    @Override
+    public void testStarted(String host) {
+    }
+
+    @Override
+    public void testEnded() {
+        testEnded("");
+    }
+
+    @Override
+    public void testEnded(String host) {
+        YdbRetryStats.report(getName());
+    }
+
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(String dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public String getWorkload() {
+        return workload;
+    }
+
+    public void setWorkload(String workload) {
+        this.workload = workload;
+    }
+
+    public String getTablePath() {
+        return tablePath;
+    }
+
+    public void setTablePath(String tablePath) {
+        this.tablePath = tablePath;
+    }
+
+    public String getRecordCount() {
+        return recordCount;
+    }
+
+    public void setRecordCount(String recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public String getFieldCount() {
+        return fieldCount;
+    }
+
+    public void setFieldCount(String fieldCount) {
+        this.fieldCount = fieldCount;
+    }
+
+    public String getFieldLength() {
+        return fieldLength;
+    }
+
+    public void setFieldLength(String fieldLength) {
+        this.fieldLength = fieldLength;
+    }
+
+    public String getRequestDistribution() {
+        return requestDistribution;
+    }
+
+    public void setRequestDistribution(String requestDistribution) {
+        this.requestDistribution = requestDistribution;
+    }
+
+    public String getMaxScanLength() {
+        return maxScanLength;
+    }
+
+    public void setMaxScanLength(String maxScanLength) {
+        this.maxScanLength = maxScanLength;
+    }
+
+    public String getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    public void setQueryTimeout(String queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
+}
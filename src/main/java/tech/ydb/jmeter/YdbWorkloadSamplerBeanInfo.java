@@ -0,0 +1,74 @@
+package tech.ydb.jmeter;
+
+import java.beans.PropertyDescriptor;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+
+public class YdbWorkloadSamplerBeanInfo extends BeanInfoSupport {
+
+    public YdbWorkloadSamplerBeanInfo() {
+        super(YdbWorkloadSampler.class);
+
+        createPropertyGroup("varName", new String[] { "dataSource" });
+
+        createPropertyGroup("workloadGroup", new String[] {
+            "workload", "tablePath", "recordCount", "requestDistribution", "queryTimeout" });
+
+        createPropertyGroup("records", new String[] {
+            "fieldCount", "fieldLength", "maxScanLength" });
+
+        PropertyDescriptor p = property("dataSource");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("workload");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, YdbWorkload.YCSB_A);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(TAGS,new String[]{
+                YdbWorkload.YCSB_A,
+                YdbWorkload.YCSB_B,
+                YdbWorkload.YCSB_C,
+                YdbWorkload.YCSB_D,
+                YdbWorkload.YCSB_E,
+                YdbWorkload.YCSB_F,
+                YdbWorkload.KEY_VALUE,
+                YdbWorkload.TPCC,
+                });
+
+        p = property("tablePath");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "usertable");
+
+        p = property("recordCount");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "1000000");
+
+        p = property("requestDistribution");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, YdbWorkload.DIST_DEFAULT);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(TAGS,new String[]{
+                YdbWorkload.DIST_DEFAULT,
+                YdbWorkload.DIST_UNIFORM,
+                YdbWorkload.DIST_ZIPFIAN,
+                YdbWorkload.DIST_LATEST,
+                });
+
+        p = property("queryTimeout");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("fieldCount");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "10");
+
+        p = property("fieldLength");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "100");
+
+        p = property("maxScanLength");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "100");
+    }
+}
@@ -0,0 +1,48 @@
+package tech.ydb.jmeter;
+
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zinal
+ */
+public class YdbArrivalScheduleTest {
+
+    @Test
+    public void testConstantRate() {
+        YdbArrivalSchedule s = YdbArrivalSchedule.ramp(100.0, 0.0);
+        Assert.assertEquals(0.0, s.timeOf(0L), 1e-9);
+        Assert.assertEquals(0.01, s.timeOf(1L), 1e-9);
+        Assert.assertEquals(10.0, s.timeOf(1000L), 1e-9);
+    }
+
+    @Test
+    public void testRamp() {
+        // 0 to 100 rps in 10 seconds: 500 requests during the ramp-up
+        YdbArrivalSchedule s = YdbArrivalSchedule.ramp(100.0, 10.0);
+        Assert.assertEquals(0.0, s.timeOf(0L), 1e-9);
+        Assert.assertEquals(Math.sqrt(2.0), s.timeOf(10L), 1e-9);
+        Assert.assertEquals(10.0, s.timeOf(500L), 1e-9);
+        Assert.assertEquals(11.0, s.timeOf(600L), 1e-9);
+    }
+
+    @Test
+    public void testProfile() {
+        YdbArrivalSchedule s = YdbArrivalSchedule.parse(Arrays.asList(
+                "# comment", "5,10", "", "10,10", "10,0", "20,0", "20,50"));
+        // The rate of the first point is used from the start
+        Assert.assertEquals(0.1, s.timeOf(1L), 1e-9);
+        Assert.assertEquals(9.9, s.timeOf(99L), 1e-9);
+        // The pause at zero rate is skipped
+        Assert.assertEquals(20.0, s.timeOf(100L), 1e-9);
+        Assert.assertEquals(21.0, s.timeOf(150L), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroFinalRate() {
+        YdbArrivalSchedule.parse(Arrays.asList("0,10", "10,0"));
+    }
+
+}
@@ -0,0 +1,52 @@
+package tech.ydb.jmeter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.Value;
+
+/**
+ *
+ * @author zinal
+ */
+public class YdbParamBinderTest {
+
+    @Test
+    public void testConvert() {
+        YdbParamBinder binder = YdbParamBinder.compile("Int32, Text?");
+        Assert.assertEquals(2, binder.getCount());
+        Assert.assertEquals("$p1", binder.getName(0));
+        Assert.assertEquals("$p2", binder.getName(1));
+        Value<?>[] values = binder.convert("10,abc");
+        Assert.assertEquals(10, ((PrimitiveValue) values[0]).getInt32());
+        Assert.assertEquals("abc", values[1].asOptional().get().asData().getText());
+    }
+
+    @Test
+    public void testReuseUnchanged() {
+        YdbParamBinder binder = YdbParamBinder.compile("Int64,Text");
+        Value<?>[] values = binder.convert("1,const");
+        Value<?> first = values[0];
+        Value<?> second = values[1];
+        values = binder.convert("2,const");
+        Assert.assertNotEquals(first, values[0]);
+        Assert.assertTrue(second == values[1]);
+        Assert.assertEquals(2L, values[0].asData().getInt64());
+    }
+
+    @Test
+    public void testRowNumber() {
+        YdbParamBinder binder = YdbParamBinder.compile("Int64,Text");
+        Assert.assertEquals(100L, binder.convert("@row(100),x")[0].asData().getInt64());
+        Assert.assertEquals(101L, binder.convert("@row(100),x")[0].asData().getInt64());
+        binder.setRowNumber(5000L);
+        Assert.assertEquals(5100L, binder.convert("@row(100),x")[0].asData().getInt64());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testCountMismatch() {
+        YdbParamBinder.compile("Int32,Int32").convert("1");
+    }
+
+}
@@ -0,0 +1,45 @@
+package tech.ydb.jmeter;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zinal
+ */
+public class YdbResultChecksumTest {
+
+    private static String xxh64(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        return YdbResultChecksum.toHex(YdbResultChecksum.xxHash64(b, 0, b.length, 0L));
+    }
+
+    @Test
+    public void testReferenceValues() {
+        Assert.assertEquals("ef46db3751d8e999", xxh64(""));
+        Assert.assertEquals("d24ec4f1a98c6e5b", xxh64("a"));
+        Assert.assertEquals("44bc2cf5ad770999", xxh64("abc"));
+        Assert.assertEquals("fbcea83c8a378bf1", xxh64("Nobody inspects the spammish repetition"));
+    }
+
+    @Test
+    public void testOrderIndependent() {
+        byte[] r1 = "row-1".getBytes(StandardCharsets.UTF_8);
+        byte[] r2 = "row-2".getBytes(StandardCharsets.UTF_8);
+        YdbResultChecksum a = new YdbResultChecksum();
+        a.addRow(r1, r1.length, 0L);
+        a.addRow(r2, r2.length, 0L);
+        YdbResultChecksum b = new YdbResultChecksum();
+        b.addRow(r2, r2.length, 0L);
+        b.addRow(r1, r1.length, 0L);
+        Assert.assertEquals(a.getDigestHex(), b.getDigestHex());
+        Assert.assertEquals(2L, b.getRows());
+        // Another result set gives another digest
+        YdbResultChecksum c = new YdbResultChecksum();
+        c.addRow(r1, r1.length, 1L);
+        c.addRow(r2, r2.length, 1L);
+        Assert.assertNotEquals(a.getDigest(), c.getDigest());
+    }
+
+}
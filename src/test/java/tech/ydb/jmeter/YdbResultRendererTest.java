@@ -0,0 +1,86 @@
+package tech.ydb.jmeter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.result.impl.ProtoValueReaders;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.Value;
+
+/**
+ *
+ * @author zinal
+ */
+public class YdbResultRendererTest {
+
+    private static final byte[] BINARY = new byte[] { 0, 1, 9, 10, 34, 92, 127, -128, -1 };
+
+    private static String render(Value<?>... values) {
+        final ValueProtos.ResultSet.Builder rs = ValueProtos.ResultSet.newBuilder();
+        final ValueProtos.Value.Builder row = ValueProtos.Value.newBuilder();
+        for (int i = 0; i < values.length; ++i) {
+            rs.addColumns(ValueProtos.Column.newBuilder().setName("c" + i).setType(values[i].getType().toPb()));
+            row.addItems(values[i].toPb());
+        }
+        rs.addRows(row);
+        final ResultSetReader rsr = ProtoValueReaders.forResultSet(rs.build());
+        final YdbResultRenderer r = YdbResultRenderer.acquire(AbstractYdbTestElement.MAX_STORE_CHARS);
+        try {
+            r.appendRows(rsr, 0L, -1L);
+            return new String(r.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            r.release();
+        }
+    }
+
+    private static void assertSameAsSdk(Value<?> v) {
+        Assert.assertEquals(v.getType().toString(), v.toString() + "\n", render(v));
+    }
+
+    @Test
+    public void testPrimitivesAsSdk() {
+        assertSameAsSdk(PrimitiveValue.newBool(true));
+        assertSameAsSdk(PrimitiveValue.newBool(false));
+        assertSameAsSdk(PrimitiveValue.newInt8((byte) -128));
+        assertSameAsSdk(PrimitiveValue.newUint8(255));
+        assertSameAsSdk(PrimitiveValue.newInt16((short) -32768));
+        assertSameAsSdk(PrimitiveValue.newUint16(65535));
+        assertSameAsSdk(PrimitiveValue.newInt32(Integer.MIN_VALUE));
+        assertSameAsSdk(PrimitiveValue.newUint32(4294967295L));
+        assertSameAsSdk(PrimitiveValue.newInt64(Long.MIN_VALUE));
+        assertSameAsSdk(PrimitiveValue.newInt64(1234567890123L));
+        assertSameAsSdk(PrimitiveValue.newUint64(-1L));
+        assertSameAsSdk(PrimitiveValue.newFloat(1.5f));
+        assertSameAsSdk(PrimitiveValue.newDouble(-0.125));
+        assertSameAsSdk(PrimitiveValue.newText(""));
+        assertSameAsSdk(PrimitiveValue.newText("plain"));
+        assertSameAsSdk(PrimitiveValue.newText("q\"uo\\te\t\u0442\u0435\u043a\u0441\u0442 \ud83d\ude00"));
+        assertSameAsSdk(PrimitiveValue.newBytes(new byte[0]));
+        assertSameAsSdk(PrimitiveValue.newBytes(BINARY));
+        assertSameAsSdk(PrimitiveValue.newYson(BINARY));
+        assertSameAsSdk(PrimitiveValue.newJson("{\"a\":\"b\\\\c\"}"));
+        assertSameAsSdk(PrimitiveValue.newJsonDocument("{\"a\":[1,2]}"));
+        assertSameAsSdk(PrimitiveValue.newUuid(UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430c8")));
+        assertSameAsSdk(PrimitiveValue.newDate(LocalDate.of(2024, 2, 29)));
+        assertSameAsSdk(PrimitiveValue.newDatetime(LocalDateTime.of(2024, 2, 29, 10, 0, 0)));
+        assertSameAsSdk(PrimitiveValue.newDatetime(LocalDateTime.of(2024, 2, 29, 10, 11, 12)));
+        assertSameAsSdk(PrimitiveValue.newTimestamp(Instant.parse("2024-02-29T10:00:00Z")));
+        assertSameAsSdk(PrimitiveValue.newTimestamp(Instant.parse("2024-02-29T10:11:12.345678Z")));
+        assertSameAsSdk(PrimitiveValue.newInterval(Duration.ofMillis(90061001L)));
+    }
+
+    @Test
+    public void testRowFraming() {
+        Assert.assertEquals("1\t\"a\\\"b\"\n",
+                render(PrimitiveValue.newInt32(1), PrimitiveValue.newText("a\"b")));
+    }
+
+}
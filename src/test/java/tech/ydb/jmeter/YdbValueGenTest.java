@@ -0,0 +1,149 @@
+package tech.ydb.jmeter;
+
+import java.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.Value;
+
+/**
+ *
+ * @author zinal
+ */
+public class YdbValueGenTest {
+
+    @Test
+    public void testSpec() {
+        Assert.assertTrue(YdbValueGen.isSpec("@uniform(1,1e9)"));
+        Assert.assertTrue(YdbValueGen.isSpec(" @uuid() "));
+        Assert.assertFalse(YdbValueGen.isSpec("@unknown(1)"));
+        Assert.assertFalse(YdbValueGen.isSpec("uniform(1,2)"));
+        Assert.assertEquals(1000000000L, YdbValueGen.parseLong("1e9"));
+    }
+
+    @Test
+    public void testUniformRange() {
+        YdbValueGen.Uniform g = (YdbValueGen.Uniform) YdbValueGen.parse("@uniform(5,7)");
+        boolean[] seen = new boolean[3];
+        for (int i = 0; i < 1000; ++i) {
+            long v = g.nextLong();
+            Assert.assertTrue(v >= 5L && v <= 7L);
+            seen[(int) (v - 5L)] = true;
+        }
+        Assert.assertTrue(seen[0] && seen[1] && seen[2]);
+    }
+
+    @Test
+    public void testZipfian() {
+        // Tail approximation against the exact sum
+        double exact = 0.0;
+        for (long i = 1; i <= 100000L; ++i) {
+            exact += 1.0 / Math.pow(i, 0.99);
+        }
+        Assert.assertEquals(exact, YdbValueGen.Zipfian.zeta(100000L, 0.99), 1e-9);
+
+        YdbValueGen.Zipfian g = (YdbValueGen.Zipfian) YdbValueGen.parse("@zipfian(1000)");
+        int first = 0;
+        for (int i = 0; i < 100000; ++i) {
+            long v = g.nextLong();
+            Assert.assertTrue(v >= 1L && v <= 1000L);
+            if (v == 1L) {
+                first += 1;
+            }
+        }
+        // P(1) = 1/zeta(1000, 0.99), about 0.13
+        Assert.assertTrue(first > 11000 && first < 15000);
+    }
+
+    @Test
+    public void testHotspot() {
+        YdbValueGen.Hotspot g = (YdbValueGen.Hotspot) YdbValueGen.parse("@hotspot(1,100,0.1,0.9)");
+        int hot = 0;
+        for (int i = 0; i < 100000; ++i) {
+            long v = g.nextLong();
+            Assert.assertTrue(v >= 1L && v <= 100L);
+            if (v <= 10L) {
+                hot += 1;
+            }
+        }
+        Assert.assertTrue(hot > 88000 && hot < 92000);
+    }
+
+    @Test
+    public void testSequential() {
+        YdbValueGen.Sequential g = (YdbValueGen.Sequential) YdbValueGen.parse("@sequential(10,5)");
+        Assert.assertEquals(10L, g.nextLong());
+        Assert.assertEquals(15L, g.nextLong());
+    }
+
+    @Test
+    public void testKeyBlocks() {
+        YdbKeyAllocator.register(new YdbKeyAllocator("testKeys", 3L, 1L, ""));
+        try {
+            YdbKeyAllocator.Range a = new YdbKeyAllocator.Range("testKeys", "t", YdbKeyAllocator.ORDER_SEQUENTIAL);
+            YdbKeyAllocator.Range b = new YdbKeyAllocator.Range("testKeys", "t", YdbKeyAllocator.ORDER_SEQUENTIAL);
+            Assert.assertEquals(1L, a.nextKey());
+            Assert.assertEquals(4L, b.nextKey());
+            Assert.assertEquals(2L, a.nextKey());
+            Assert.assertEquals(3L, a.nextKey());
+            Assert.assertEquals(7L, a.nextKey());
+            Assert.assertEquals(5L, b.nextKey());
+        } finally {
+            YdbKeyAllocator.remove("testKeys");
+        }
+    }
+
+    @Test
+    public void testKeyOrder() {
+        java.util.HashSet<Long> shuffled = new java.util.HashSet<>();
+        java.util.HashSet<Long> reversed = new java.util.HashSet<>();
+        for (long k = 0; k < 100000L; ++k) {
+            long s = YdbKeyAllocator.order(k, YdbKeyAllocator.ORDER_SHUFFLED);
+            long r = YdbKeyAllocator.order(k, YdbKeyAllocator.ORDER_BITREVERSED);
+            Assert.assertTrue(s >= 0L && r >= 0L);
+            shuffled.add(s);
+            reversed.add(r);
+        }
+        Assert.assertEquals(100000, shuffled.size());
+        Assert.assertEquals(100000, reversed.size());
+        Assert.assertEquals(1L << 62, YdbKeyAllocator.order(1L, YdbKeyAllocator.ORDER_BITREVERSED));
+    }
+
+    @Test
+    public void testUuid() {
+        YdbValueGen g = YdbValueGen.parse("@uuid()");
+        Value<?> v = g.next(YdbValueConv.lookup("Uuid"));
+        Assert.assertEquals(PrimitiveType.Uuid, v.getType());
+        UUID u = ((PrimitiveValue) v).getUuidJdk();
+        Assert.assertEquals(4, u.version());
+        Assert.assertEquals(2, u.variant());
+        Value<?> t = g.next(YdbValueConv.lookup("Text"));
+        Assert.assertEquals(4, UUID.fromString(((PrimitiveValue) t).getText()).version());
+    }
+
+    @Test
+    public void testRangeCheck() {
+        YdbValueGen.parse("@uniform(-5,2147483647)").checkRange(YdbValueConv.lookup("Int32"));
+        YdbValueGen.parse("@uniform(1,1e10)").checkRange(YdbValueConv.lookup("Int64"));
+        try {
+            YdbValueGen.parse("@uniform(1,1e10)").checkRange(YdbValueConv.lookup("Int32?"));
+            Assert.fail("Int32 range not checked");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getMessage().contains("Int32"));
+        }
+        try {
+            YdbValueGen.parse("@sequential(-1)").checkRange(YdbValueConv.lookup("Uint32"));
+            Assert.fail("Uint32 range not checked");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getMessage().contains("Uint32"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalArguments() {
+        YdbValueGen.parse("@uniform(1)");
+    }
+
+}
@@ -0,0 +1,45 @@
+package tech.ydb.jmeter;
+
+import java.util.EnumMap;
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zinal
+ */
+public class YdbWorkloadTest {
+
+    @Test
+    public void testWeightedChoice() {
+        YdbWorkload w = YdbWorkload.forName(YdbWorkload.YCSB_B);
+        EnumMap<YdbWorkload.Op, Integer> counts = new EnumMap<>(YdbWorkload.Op.class);
+        SplittableRandom random = new SplittableRandom(1L);
+        for (int i = 0; i < 100000; ++i) {
+            counts.merge(w.choose(random.nextDouble()), 1, Integer::sum);
+        }
+        Assert.assertEquals(2, counts.size());
+        Assert.assertEquals(95000, counts.get(YdbWorkload.Op.READ), 500);
+        Assert.assertEquals(YdbWorkload.Op.UPDATE, w.choose(0.99999));
+    }
+
+    @Test
+    public void testPresets() {
+        for (String name : new String[] { YdbWorkload.YCSB_A, YdbWorkload.YCSB_B, YdbWorkload.YCSB_C,
+            YdbWorkload.YCSB_D, YdbWorkload.YCSB_E, YdbWorkload.YCSB_F,
+            YdbWorkload.KEY_VALUE, YdbWorkload.TPCC }) {
+            YdbWorkload w = YdbWorkload.forName(name);
+            Assert.assertEquals(name, w.getName());
+            Assert.assertTrue(w.getOps().length > 0);
+        }
+        Assert.assertEquals(YdbWorkload.DIST_LATEST, YdbWorkload.forName(YdbWorkload.YCSB_D).getDistribution());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknown() {
+        YdbWorkload.forName("YCSB Z");
+    }
+
+}